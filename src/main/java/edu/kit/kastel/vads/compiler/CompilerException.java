@@ -0,0 +1,35 @@
+package edu.kit.kastel.vads.compiler;
+
+import org.jspecify.annotations.Nullable;
+
+/// The base class of errors in the program being compiled.
+/// In diagnostics mode (`-Ddiagnostics=true`), these exceptions don't capture a stack trace.
+/// They are reported by their [#diagnostic()] instead, which makes rejecting invalid programs cheap.
+public abstract class CompilerException extends RuntimeException {
+    private static final boolean DIAGNOSTICS = Boolean.getBoolean("diagnostics");
+
+    private final @Nullable Span span;
+
+    protected CompilerException(String message, @Nullable Span span) {
+        super(message, null, true, !DIAGNOSTICS);
+        this.span = span;
+    }
+
+    /// {@return whether errors are reported as diagnostics instead of stack traces}
+    public static boolean diagnosticsMode() {
+        return DIAGNOSTICS;
+    }
+
+    /// {@return the location of the error in the source, if known}
+    public @Nullable Span span() {
+        return this.span;
+    }
+
+    /// {@return the message, prefixed by the location of the error if it is known}
+    public String diagnostic() {
+        if (this.span == null) {
+            return "error: " + getMessage();
+        }
+        return "error at " + this.span + ": " + getMessage();
+    }
+}
@@ -3,14 +3,22 @@ package edu.kit.kastel.vads.compiler;
 import edu.kit.kastel.vads.compiler.backend.x86.x86CodeGenerator;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.AlgebraicSimplification;
 import edu.kit.kastel.vads.compiler.ir.optimize.ConstantFolding;
+import edu.kit.kastel.vads.compiler.ir.optimize.DeadCodeElimination;
+import edu.kit.kastel.vads.compiler.ir.optimize.GlobalValueNumbering;
+import edu.kit.kastel.vads.compiler.ir.optimize.OptimizationPipeline;
+import edu.kit.kastel.vads.compiler.ir.optimize.SsaMinimization;
 //import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
 import edu.kit.kastel.vads.compiler.ir.util.YCompPrinter;
 import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.ParallelLexer;
+import edu.kit.kastel.vads.compiler.lexer.TokenBuffer;
 import edu.kit.kastel.vads.compiler.parser.ParseException;
 import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenBufferSource;
 import edu.kit.kastel.vads.compiler.parser.TokenSource;
-import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.TokenStream;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
 import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
 import edu.kit.kastel.vads.compiler.semantic.SemanticException;
@@ -19,6 +27,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class Main {
   public static void main(String[] args) throws Exception {
@@ -32,21 +42,38 @@ public class Main {
     try {
       new SemanticAnalysis(program).analyze();
     } catch (SemanticException e) {
-      e.printStackTrace();
+      report(e);
       System.exit(7);
 
       return;
     } catch (ParseException e) {
-        e.printStackTrace();
+        report(e);
         System.exit(42);
         return;
     }
-    List<IrGraph> graphs = new ArrayList<>();
-    for (FunctionTree function : program.topLevelTrees()) {
-      SsaTranslation translation = new SsaTranslation(function, new ConstantFolding());
-      graphs.add(translation.translate());
-
-    }
+    // functions are compiled independently, only the final assembly puts them together in order
+    int parallelism = Integer.getInteger("parallelism", 1);
+    boolean debugInfo = Boolean.parseBoolean(System.getProperty("debugInfo", "true"));
+    boolean minimizeSsa = Boolean.getBoolean("minimizeSsa");
+    boolean optimizationStats = Boolean.getBoolean("optimizationStats");
+    List<IrGraph> graphs = mapInOrder(
+        program.topLevelTrees(),
+        function -> {
+          // the graph is only optimized once it is finished, by the pipeline
+          IrGraph graph = new SsaTranslation(function, node -> node, debugInfo).translate();
+          if (minimizeSsa) {
+            SsaMinimization.minimize(graph);
+          }
+          OptimizationPipeline pipeline = optimizationPipeline();
+          pipeline.run(graph);
+          DeadCodeElimination.eliminate(graph);
+          if (optimizationStats) {
+            reportStatistics(graph, pipeline);
+          }
+          return graph;
+        },
+        parallelism
+    );
     if ("vcg".equals(System.getenv("DUMP_GRAPHS")) || "vcg".equals(System.getProperty("dumpGraphs"))) {
       Path tmp = output.toAbsolutePath().resolveSibling("graphs");
       Files.createDirectory(tmp);
@@ -56,7 +83,8 @@ public class Main {
     }
 
     // assembly
-    String s = new x86CodeGenerator().generateCode(graphs);
+    x86CodeGenerator codeGenerator = new x86CodeGenerator();
+    String s = codeGenerator.assemble(mapInOrder(graphs, codeGenerator::generateFunction, parallelism));
     Path assemblyFilePath = Path.of(output+".s");
 
     Files.writeString(assemblyFilePath, s);
@@ -81,17 +109,63 @@ public class Main {
 
   private static ProgramTree lexAndParse(Path input) throws IOException {
     try {
-      Lexer lexer = Lexer.forString(Files.readString(input));
-      TokenSource tokenSource = new TokenSource(lexer);
+      Lexer lexer = Lexer.forFile(input);
+      TokenStream tokenSource = switch (String.valueOf(System.getProperty("tokens"))) {
+        case "buffer" -> new TokenBufferSource(TokenBuffer.lex(lexer));
+        case "parallel" -> new TokenBufferSource(ParallelLexer.lex(lexer, ForkJoinPool.commonPool()));
+        default -> new TokenSource(lexer);
+      };
       Parser parser = new Parser(tokenSource);
       return parser.parseProgram();
     } catch (ParseException e) {
-      e.printStackTrace();
+      report(e);
       System.exit(42);
       throw new AssertionError("unreachable");
     }
   }
 
+  /// {@return the optimizers run on a finished graph until nothing changes anymore}
+  /// Value numbering must not be shared between graphs, so every function gets its own pipeline.
+  private static OptimizationPipeline optimizationPipeline() {
+    return new OptimizationPipeline()
+        .add(new ConstantFolding())
+        .add(new AlgebraicSimplification())
+        .add(new GlobalValueNumbering());
+  }
+
+  private static void reportStatistics(IrGraph graph, OptimizationPipeline pipeline) {
+    StringBuilder report = new StringBuilder()
+        .append(graph.name()).append(": ").append(pipeline.iterations()).append(" iterations");
+    for (OptimizationPipeline.PassStatistics statistics : pipeline.statistics()) {
+      report.append("\n  ").append(statistics);
+    }
+    // a single print, so the reports of functions compiled in parallel don't interleave
+    System.err.println(report);
+  }
+
+  /// Applies the function to all items, on `parallelism` threads if it is greater than one.
+  /// {@return the results in the order of the items}
+  private static <T, R> List<R> mapInOrder(List<T> items, Function<T, R> function, int parallelism) {
+    if (parallelism <= 1 || items.size() <= 1) {
+      List<R> results = new ArrayList<>(items.size());
+      for (T item : items) {
+        results.add(function.apply(item));
+      }
+      return results;
+    }
+    try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+      return pool.submit(() -> items.parallelStream().map(function).toList()).join();
+    }
+  }
+
+  private static void report(CompilerException e) {
+    if (CompilerException.diagnosticsMode()) {
+      System.err.println(e.diagnostic());
+    } else {
+      e.printStackTrace();
+    }
+  }
+
   private static void dumpGraph(IrGraph graph, Path path, String key) throws IOException {
     Files.writeString(
         path.resolve(graph.name() + "-" + key + ".vcg"),
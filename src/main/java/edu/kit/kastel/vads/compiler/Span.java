@@ -6,6 +6,18 @@ public sealed interface Span {
 
     Span merge(Span later);
 
+    /// {@return a span of `length` characters on the given line}
+    /// The span is packed into a single `long` if its components fit.
+    static Span singleLine(int line, int column, int length) {
+        if (PackedSpan.fits(line, column, length)) {
+            return new PackedSpan(PackedSpan.pack(line, column, length));
+        }
+        return new SimpleSpan(
+            new Position.SimplePosition(line, column),
+            new Position.SimplePosition(line, column + length)
+        );
+    }
+
     record SimpleSpan(Position start, Position end) implements Span {
         @Override
         public Span merge(Span later) {
@@ -17,4 +29,59 @@ public sealed interface Span {
             return "[" + start() + "|" + end() + "]";
         }
     }
+
+    /// A span on a single line, stored as line, column and length in one `long`.
+    /// Its [Position]s are only created on request, e.g. for error messages.
+    record PackedSpan(long bits) implements Span {
+        private static final int LINE_BITS = 24;
+        private static final int COLUMN_BITS = 24;
+        private static final int LENGTH_BITS = 16;
+
+        static boolean fits(int line, int column, int length) {
+            return line >= 0 && line >>> LINE_BITS == 0
+                && column >= 0 && column >>> COLUMN_BITS == 0
+                && length >= 0 && length >>> LENGTH_BITS == 0;
+        }
+
+        static long pack(int line, int column, int length) {
+            return (long) line << (COLUMN_BITS + LENGTH_BITS)
+                | (long) column << LENGTH_BITS
+                | length;
+        }
+
+        public int line() {
+            return (int) (this.bits >>> (COLUMN_BITS + LENGTH_BITS));
+        }
+
+        public int column() {
+            return (int) (this.bits >>> LENGTH_BITS) & ((1 << COLUMN_BITS) - 1);
+        }
+
+        public int length() {
+            return (int) this.bits & ((1 << LENGTH_BITS) - 1);
+        }
+
+        @Override
+        public Position start() {
+            return new Position.SimplePosition(line(), column());
+        }
+
+        @Override
+        public Position end() {
+            return new Position.SimplePosition(line(), column() + length());
+        }
+
+        @Override
+        public Span merge(Span later) {
+            if (later instanceof PackedSpan packed && packed.line() == line() && packed.column() >= column()) {
+                return singleLine(line(), column(), packed.column() + packed.length() - column());
+            }
+            return new SimpleSpan(start(), later.end());
+        }
+
+        @Override
+        public String toString() {
+            return "[" + line() + ":" + column() + "|" + line() + ":" + (column() + length()) + "]";
+        }
+    }
 }
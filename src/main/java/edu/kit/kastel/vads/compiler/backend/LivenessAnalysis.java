@@ -34,50 +34,61 @@ private final Map<Node, Set<Node>> liveNodes;
             // Perform liveness analysis for each block
         controlFlowOrders.put(irGraph ,irGraph.getControlFlowOrder());
 
-        for(Node pre: node.predecessors()) {
-            getLivenessOfNode(pre, liveIn, liveNodes);
+        for (int i = 0; i < node.predecessorCount(); i++) {
+            getLivenessOfNode(node.predecessor(i), liveIn, liveNodes);
         }
     }
+    /// {@return the successors of the node that were already analyzed}
+    /// A successor that uses the node several times is contained once.
     public List<Node> successors(Node node) {
         List<Node> successors = new ArrayList<>();
-        for (Node potentialSuccessor : liveNodes.keySet()) {
-            if (potentialSuccessor.predecessors().contains(node)) {
-                successors.add(potentialSuccessor);
+        IrGraph graph = node.graph();
+        BitSet seen = new BitSet();
+        for (int i = 0; i < graph.successorCount(node); i++) {
+            Node successor = graph.successor(node, i);
+            if (!seen.get(successor.id()) && liveNodes.containsKey(successor)) {
+                seen.set(successor.id());
+                successors.add(successor);
             }
         }
         return successors;
     }
 
-    public void getLivenessOfNode(Node node, Set<Node> visited, Map<Node, Set<Node>> liveNodes) {
-
-        if (visited.contains(node)) {
-            return;
-        }
-        visited.add(node);
+    public void getLivenessOfNode(Node start, Set<Node> visited, Map<Node, Set<Node>> liveNodes) {
+        // visits the nodes in the same order as a recursive walk would,
+        // but long chains of operations can't overflow the call stack
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (visited.contains(node)) {
+                continue;
+            }
+            visited.add(node);
 
-        // Berechnung von liveOut
-        Set<Node> liveOut = getLiveOut(node, successors(node).stream().map(liveNodes::get).collect(Collectors.toList()));
+            // Berechnung von liveOut
+            Set<Node> liveOut = getLiveOut(node, successors(node).stream().map(liveNodes::get).collect(Collectors.toList()));
 
 
 //TODO: add liveness analysis with logic base from lecture properly
-        if (liveNodes.containsKey(node) && liveNodes.get(node).equals(liveIn)) {
-            return;
-        }
-        liveNodes.put(node, liveIn);
-        for (Node successor : successors(node)) {
-            Set<Node> successorLiveIn = liveNodes.getOrDefault(successor, new HashSet<>());
-            liveOut.addAll(successorLiveIn);
-        }
-        // compute liveIn
-        Set<Node> liveIn = new HashSet<>(getUses(node));
-        liveOut.removeAll(getDefs(node));
-        liveIn.addAll(liveOut);
-
-        for (Node predecessor : node.predecessors()) {
-            getLivenessOfNode(predecessor, visited, liveNodes);
+            if (liveNodes.containsKey(node) && liveNodes.get(node).equals(liveIn)) {
+                continue;
+            }
+            liveNodes.put(node, liveIn);
+            for (Node successor : successors(node)) {
+                Set<Node> successorLiveIn = liveNodes.getOrDefault(successor, new HashSet<>());
+                liveOut.addAll(successorLiveIn);
+            }
+            // compute liveIn
+            Set<Node> liveIn = new HashSet<>(getUses(node));
+            liveOut.removeAll(getDefs(node));
+            liveIn.addAll(liveOut);
+
+            // pushed in reverse, so the first predecessor is visited first
+            for (int i = node.predecessorCount() - 1; i >= 0; i--) {
+                stack.push(node.predecessor(i));
+            }
         }
-
-
     }
     private Set<Node> getLiveIn(Node node, Set<Node> liveOut) {
         Set<Node> defs = getDefs(node);
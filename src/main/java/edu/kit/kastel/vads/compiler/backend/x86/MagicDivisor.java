@@ -0,0 +1,47 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+/// The multiplier and shift that replace a signed division by a constant, as described in chapter 10 of
+/// Hacker's Delight. The quotient of `x / divisor` is the high half of `multiplier * x`, corrected by adding or
+/// subtracting `x` if the signs of the multiplier and the divisor differ, shifted right arithmetically by
+/// `shift`, plus one if that is negative.
+///
+/// Only divisors whose absolute value is at least `3` and not a power of two are supported, the others can
+/// be handled with shifts alone.
+record MagicDivisor(int multiplier, int shift) {
+    private static final long TWO_31 = 1L << 31;
+    private static final long MASK = 0xFFFF_FFFFL;
+
+    static MagicDivisor of(int divisor) {
+        long absolute = Math.abs((long) divisor);
+        if (absolute < 3 || Long.bitCount(absolute) == 1) {
+            throw new IllegalArgumentException("no magic number needed for " + divisor);
+        }
+        // unsigned 32-bit arithmetic, kept in longs
+        long t = TWO_31 + ((divisor & MASK) >>> 31);
+        long anc = t - 1 - t % absolute;
+        int p = 31;
+        long q1 = TWO_31 / anc;
+        long r1 = TWO_31 - q1 * anc;
+        long q2 = TWO_31 / absolute;
+        long r2 = TWO_31 - q2 * absolute;
+        long delta;
+        do {
+            p++;
+            q1 = (2 * q1) & MASK;
+            r1 = (2 * r1) & MASK;
+            if (r1 >= anc) {
+                q1 = (q1 + 1) & MASK;
+                r1 = (r1 - anc) & MASK;
+            }
+            q2 = (2 * q2) & MASK;
+            r2 = (2 * r2) & MASK;
+            if (r2 >= absolute) {
+                q2 = (q2 + 1) & MASK;
+                r2 = (r2 - absolute) & MASK;
+            }
+            delta = absolute - r2;
+        } while (q1 < delta || (q1 == delta && r1 == 0));
+        int multiplier = (int) (q2 + 1);
+        return new MagicDivisor(divisor < 0 ? -multiplier : multiplier, p - 32);
+    }
+}
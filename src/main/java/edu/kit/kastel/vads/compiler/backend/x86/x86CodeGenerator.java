@@ -12,11 +12,13 @@ import edu.kit.kastel.vads.compiler.ir.node.Node;
 import edu.kit.kastel.vads.compiler.ir.node.Phi;
 import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
 import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
 import edu.kit.kastel.vads.compiler.ir.node.StartNode;
 import edu.kit.kastel.vads.compiler.ir.node.SubNode;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -25,11 +27,33 @@ import static edu.kit.kastel.vads.compiler.ir.util.NodeSupport.predecessorSkipPr
 public class x86CodeGenerator {
 
     public String generateCode(List<IrGraph> program) throws IOException {
+        List<String> functions = new ArrayList<>(program.size());
+        for (IrGraph graph : program) {
+            functions.add(generateFunction(graph));
+        }
+        return assemble(functions);
+    }
+
+    /// {@return the assembly of a program made of the given functions, in this order}
+    /// See [#generateFunction(IrGraph)] for the code of a single function.
+    public String assemble(List<String> functions) throws IOException {
         StringBuilder builder = new StringBuilder();
         builder.append(prologue());
-        for (IrGraph graph : program) {
-            x86RegisterAllocator allocator = new x86RegisterAllocator(graph);
-            Map<Node, Register> registers = allocator.allocateRegisters(graph);
+        for (String function : functions) {
+            builder.append(function);
+        }
+        FileWriter writer = new FileWriter("output.s");
+        writer.write(builder.toString());
+        writer.close();
+        return builder.toString();
+    }
+
+    /// {@return the code of a single function}
+    /// This only depends on the given graph, so several functions can be generated concurrently.
+    public String generateFunction(IrGraph graph) {
+        StringBuilder builder = new StringBuilder();
+        x86RegisterAllocator allocator = new x86RegisterAllocator(graph);
+        Map<Node, Register> registers = allocator.allocateRegisters(graph);
 //
 //            try {
 //                FileWriter file = new FileWriter("graph.vcg", true);
@@ -46,22 +70,16 @@ public class x86CodeGenerator {
 //                throw new RuntimeException(e);
 //            }
 
-            if (graph.name().equals("main")) {
-                builder.append(generatePrologue("_main"));
-                generateForGraph(graph, builder, registers);
-                generateEpilogue("_main", builder);
-            }else{
-                builder.append(graph.name())
-                        .append(": \n");
-                generateForGraph(graph, builder, registers);
-                generateEpilogue(graph.name(), builder);
-            }
-
-
+        if (graph.name().equals("main")) {
+            builder.append(generatePrologue("_main"));
+            generateForGraph(graph, builder, registers);
+            generateEpilogue("_main", builder);
+        }else{
+            builder.append(graph.name())
+                    .append(": \n");
+            generateForGraph(graph, builder, registers);
+            generateEpilogue(graph.name(), builder);
         }
-        FileWriter writer = new FileWriter("output.s");
-        writer.write(builder.toString());
-        writer.close();
         return builder.toString();
     }
     public void generateEpilogue(String name, StringBuilder builder){
@@ -104,24 +122,21 @@ public class x86CodeGenerator {
                 case AddNode add -> binary(builder, registers, add, "add");
                 case SubNode sub -> subtract(builder, registers, sub, "sub");
                 case MulNode mul -> binary(builder, registers, mul, "imul");
-                case DivNode div -> {
-                    builder.append("mov ").append(x86Registers.RealRegisters.EAX).append(", ")
-                            .append(registers.get(predecessorSkipProj(div, BinaryOperationNode.LEFT))).append("\n");
-                    builder.append("cdq\n");
-                    builder.append("idiv ").append(registers.get(predecessorSkipProj(div, BinaryOperationNode.RIGHT))).append("\n");
-                }
-                case ModNode mod -> builder.append("mov ").append(x86Registers.RealRegisters.EAX).append(", ")
-                        .append(registers.get(predecessorSkipProj(mod, BinaryOperationNode.LEFT))).append("\n")
-                        .append("cdq\n")
-                        .append("idiv ").append(registers.get(predecessorSkipProj(mod, BinaryOperationNode.RIGHT))).append("\n")
-                        .append("mov ").append(registers.get(mod)).append(", ").append(x86Registers.RealRegisters.EDX).append("\n");
+                case ShlNode shl -> shiftLeft(builder, registers, shl);
+                case DivNode div -> divide(builder, registers, div, false);
+                case ModNode mod -> divide(builder, registers, mod, true);
                 case ReturnNode r -> builder.repeat(" ", 2)
                         .append("mov ").append(x86Registers.RealRegisters.EAX)
                         .append(", ")
                         .append(registers.get(predecessorSkipProj(r, ReturnNode.RESULT)))
                         .append(System.lineSeparator())
                         .append("  ret\n");
-                case ConstIntNode c -> builder.append("mov ").append(registers.get(c)).append(", ").append(c.value()).append("\n");
+                case ConstIntNode c -> {
+                    // constants only used as immediates have no register
+                    if (registers.containsKey(c)) {
+                        builder.append("mov ").append(registers.get(c)).append(", ").append(c.value()).append("\n");
+                    }
+                }
                 case Phi _ -> throw new UnsupportedOperationException("phi");
                 case Block _, ProjNode _, StartNode _ -> {
                     // do nothing, skip line break
@@ -180,6 +195,114 @@ public class x86CodeGenerator {
   }
     }
 
+    private static void shiftLeft(StringBuilder builder, Map<Node, Register> registers, ShlNode node) {
+        Register target = registers.get(node);
+        Register left = registers.get(predecessorSkipProj(node, BinaryOperationNode.LEFT));
+        // the amount is always a constant, shl only takes it as an immediate or in cl
+        int amount = ((ConstIntNode) predecessorSkipProj(node, BinaryOperationNode.RIGHT)).value();
+        if (!target.equals(left)) {
+            if (target instanceof x86Registers.OverflowRegisters && left instanceof x86Registers.OverflowRegisters) {
+                builder.append("  mov ").append(x86Registers.RealRegisters.R15D).append(", ").append(left).append("\n")
+                    .append("  mov ").append(target).append(", ").append(x86Registers.RealRegisters.R15D).append("\n");
+            } else {
+                builder.append("  mov ").append(target).append(", ").append(left).append("\n");
+            }
+        }
+        builder.append("  shl ").append(target).append(", ").append(amount).append("\n");
+    }
+
+    /// {@return whether the input of `node` at `index` is emitted as an immediate, so it needs no register}
+    static boolean takesImmediate(Node node, int index) {
+        return switch (node) {
+            case ShlNode _ -> index == BinaryOperationNode.RIGHT;
+            case DivNode _, ModNode _ -> index == BinaryOperationNode.RIGHT
+                && predecessorSkipProj(node, index) instanceof ConstIntNode c && c.value() != 0 && c.value() != -1;
+            default -> false;
+        };
+    }
+
+    /// Divides with `idiv`, or without it if the divisor is a constant, see [#divideByConstant].
+    /// Only `idiv` traps, so it is kept for the constants `0` and `-1`.
+    private static void divide(
+            StringBuilder builder,
+            Map<Node, Register> registers,
+            BinaryOperationNode node,
+            boolean remainder
+            ) {
+        Register dividend = registers.get(predecessorSkipProj(node, BinaryOperationNode.LEFT));
+        Node divisor = predecessorSkipProj(node, BinaryOperationNode.RIGHT);
+        Register result;
+        if (takesImmediate(node, BinaryOperationNode.RIGHT)) {
+            result = divideByConstant(builder, dividend, ((ConstIntNode) divisor).value(), remainder);
+        } else {
+            instruction(builder, "mov", x86Registers.RealRegisters.EAX, dividend);
+            instruction(builder, "cdq");
+            instruction(builder, "idiv", registers.get(divisor));
+            result = remainder ? x86Registers.RealRegisters.EDX : x86Registers.RealRegisters.EAX;
+        }
+        instruction(builder, "mov", registers.get(node), result);
+    }
+
+    /// Divides by a constant other than `0` and `-1` with shifts, or a multiplication with a [MagicDivisor].
+    /// {@return the register holding the quotient or the remainder}
+    static Register divideByConstant(StringBuilder builder, Register dividend, int divisor, boolean remainder) {
+        x86Registers.RealRegisters eax = x86Registers.RealRegisters.EAX;
+        x86Registers.RealRegisters edx = x86Registers.RealRegisters.EDX;
+        boolean powerOfTwo = Integer.bitCount(Math.abs(divisor)) == 1;
+        int shift = Integer.numberOfTrailingZeros(divisor);
+        if (powerOfTwo) {
+            // the quotient by the absolute value, negative dividends are rounded towards zero
+            // by adding 2^shift - 1 before shifting
+            instruction(builder, "mov", eax, dividend);
+            if (shift > 0) {
+                instruction(builder, "mov", edx, eax);
+                instruction(builder, "sar", edx, 31);
+                instruction(builder, "shr", edx, 32 - shift);
+                instruction(builder, "add", eax, edx);
+                instruction(builder, "sar", eax, shift);
+            }
+        } else {
+            MagicDivisor magic = MagicDivisor.of(divisor);
+            instruction(builder, "mov", eax, magic.multiplier());
+            instruction(builder, "imul", dividend);
+            if (divisor > 0 && magic.multiplier() < 0) {
+                instruction(builder, "add", edx, dividend);
+            } else if (divisor < 0 && magic.multiplier() > 0) {
+                instruction(builder, "sub", edx, dividend);
+            }
+            if (magic.shift() > 0) {
+                instruction(builder, "sar", edx, magic.shift());
+            }
+            instruction(builder, "mov", eax, edx);
+            instruction(builder, "shr", eax, 31);
+            instruction(builder, "add", eax, edx);
+        }
+        if (!remainder) {
+            if (powerOfTwo && divisor < 0) {
+                instruction(builder, "neg", eax);
+            }
+            return eax;
+        }
+        // dividend - quotient * divisor, where the quotient by the absolute value works for powers of two,
+        // as the remainder only depends on the sign of the dividend
+        if (powerOfTwo) {
+            instruction(builder, "shl", eax, shift);
+        } else {
+            instruction(builder, "imul", eax, eax, divisor);
+        }
+        instruction(builder, "mov", edx, dividend);
+        instruction(builder, "sub", edx, eax);
+        return edx;
+    }
+
+    private static void instruction(StringBuilder builder, String opcode, Object... operands) {
+        builder.append("  ").append(opcode);
+        for (int i = 0; i < operands.length; i++) {
+            builder.append(i == 0 ? " " : ", ").append(operands[i]);
+        }
+        builder.append("\n");
+    }
+
     private static void subtract(
             StringBuilder builder,
             Map<Node, Register> registers,
@@ -8,6 +8,8 @@ import edu.kit.kastel.vads.compiler.ir.node.*;
 
 import java.util.*;
 
+import static edu.kit.kastel.vads.compiler.ir.util.NodeSupport.predecessorSkipProj;
+
 public class x86RegisterAllocator implements RegisterAllocator {
     private int id = 0;
     private final Map<Node, Register> registers = new HashMap<>();
@@ -31,8 +33,17 @@ public class x86RegisterAllocator implements RegisterAllocator {
 //        Set<Node> visited = new HashSet<>();
 //        visited.add(graph.endBlock());
 //        scan(graph.endBlock(), visited, new ArrayList<>());
+        // by equality, like the lookups of the code generator
+        Set<Node> registerOperands = new HashSet<>();
+        for (Node node : graph.getControlFlowOrder()) {
+            for (int i = 0; i < node.predecessorCount(); i++) {
+                if (!x86CodeGenerator.takesImmediate(node, i)) {
+                    registerOperands.add(predecessorSkipProj(node, i));
+                }
+            }
+        }
         for (Node node : graph.getControlFlowOrder()) {
-            if (needsRegister(node)) {
+            if (needsRegister(node) && (!(node instanceof ConstIntNode) || registerOperands.contains(node))) {
                 if (!availableRegisters.isEmpty()) {
                     this.registers.put(node, availableRegisters.pop());
                 }
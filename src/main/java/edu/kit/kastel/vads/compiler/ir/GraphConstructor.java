@@ -13,10 +13,16 @@ import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
 import edu.kit.kastel.vads.compiler.ir.node.StartNode;
 import edu.kit.kastel.vads.compiler.ir.node.SubNode;
 import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
+import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.symbol.NameMap;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,16 +30,20 @@ class GraphConstructor {
 
     private final Optimizer optimizer;
     private final IrGraph graph;
-    private final Map<Name, Map<Block, Node>> currentDef = new HashMap<>();
+    private final NameMap<Map<Block, Node>> currentDef = new NameMap<>();
     private final Map<Block, Map<Name, Phi>> incompletePhis = new HashMap<>();
     private final Map<Block, Node> currentSideEffect = new HashMap<>();
     private final Map<Block, Phi> incompleteSideEffectPhis = new HashMap<>();
     private final Set<Block> sealedBlocks = new HashSet<>();
+    // removed trivial phis and the value that replaced them, the variable maps may still refer to them
+    private final Map<Phi, Node> replacedPhis = new IdentityHashMap<>();
+    // the debug infos of the enclosing trees, the innermost one is set on the graph
+    private final Deque<DebugInfo> debugStack = new ArrayDeque<>();
     private Block currentBlock;
 
-    public GraphConstructor(Optimizer optimizer, String name) {
+    public GraphConstructor(Optimizer optimizer, String name, boolean debugInfo) {
         this.optimizer = optimizer;
-        this.graph = new IrGraph(name);
+        this.graph = new IrGraph(name, debugInfo);
         this.currentBlock = this.graph.startBlock();
         // the start block never gets any more predecessors
         sealBlock(this.currentBlock);
@@ -94,14 +104,29 @@ class GraphConstructor {
         return this.graph;
     }
 
+    boolean keepsDebugInfo() {
+        return this.graph.keepsDebugInfo();
+    }
+
+    /// Nodes created until the matching [#popDebugInfo()] get the given debug info.
+    void pushDebugInfo(DebugInfo debugInfo) {
+        this.debugStack.push(this.graph.currentDebugInfo());
+        this.graph.setCurrentDebugInfo(debugInfo);
+    }
+
+    void popDebugInfo() {
+        this.graph.setCurrentDebugInfo(this.debugStack.pop());
+    }
+
     void writeVariable(Name variable, Block block, Node value) {
         this.currentDef.computeIfAbsent(variable, _ -> new HashMap<>()).put(block, value);
     }
 
     Node readVariable(Name variable, Block block) {
-        Node node = this.currentDef.getOrDefault(variable, Map.of()).get(block);
+        Map<Block, Node> definitions = this.currentDef.get(variable);
+        Node node = definitions == null ? null : definitions.get(block);
         if (node != null) {
-            return node;
+            return replacement(node);
         }
         return readVariableRecursive(variable, block);
     }
@@ -112,8 +137,8 @@ class GraphConstructor {
         if (!this.sealedBlocks.contains(block)) {
             val = new Phi(block);
             this.incompletePhis.computeIfAbsent(block, _ -> new HashMap<>()).put(variable, (Phi) val);
-        } else if (block.predecessors().size() == 1) {
-            val = readVariable(variable, block.predecessors().getFirst().block());
+        } else if (block.predecessorCount() == 1) {
+            val = readVariable(variable, block.predecessor(0).block());
         } else {
             val = new Phi(block);
             writeVariable(variable, block, val);
@@ -124,18 +149,50 @@ class GraphConstructor {
     }
 
     Node addPhiOperands(Name variable, Phi phi) {
-        for (Node pred : phi.block().predecessors()) {
-            phi.appendOperand(readVariable(variable, pred.block()));
+        Block block = phi.block();
+        for (int i = 0; i < block.predecessorCount(); i++) {
+            phi.appendOperand(readVariable(variable, block.predecessor(i).block()));
         }
         return tryRemoveTrivialPhi(phi);
     }
 
+    /// Replaces the phi by its only operand other than itself, if it has one.
+    /// Phis using it may become trivial by this, so they are checked again.
+    /// {@return the value that replaced the phi, or the phi if it is not trivial}
     Node tryRemoveTrivialPhi(Phi phi) {
-        // TODO: the paper shows how to remove trivial phis.
-        // as this is not a problem in Lab 1 and it is just
-        // a simplification, we recommend to implement this
-        // part yourself.
-        return phi;
+        Node same = null;
+        for (int i = 0; i < phi.predecessorCount(); i++) {
+            Node operand = phi.predecessor(i);
+            if (operand == same || operand == phi) {
+                continue;
+            }
+            if (same != null) {
+                // the phi merges at least two values
+                return phi;
+            }
+            same = operand;
+        }
+        if (same == null) {
+            // the phi is unreachable or in the start block, there is no undefined value to replace it with
+            return phi;
+        }
+        List<Node> users = List.copyOf(this.graph.successors(phi));
+        this.graph.replaceAllUses(phi, same);
+        this.replacedPhis.put(phi, same);
+        for (Node user : users) {
+            if (user instanceof Phi userPhi && userPhi != phi && !this.replacedPhis.containsKey(userPhi)) {
+                tryRemoveTrivialPhi(userPhi);
+            }
+        }
+        return same;
+    }
+
+    private Node replacement(Node node) {
+        Node replacement = node;
+        while (replacement instanceof Phi phi && this.replacedPhis.containsKey(phi)) {
+            replacement = this.replacedPhis.get(phi);
+        }
+        return replacement;
     }
 
     void sealBlock(Block block) {
@@ -164,7 +221,7 @@ class GraphConstructor {
     private Node readSideEffect(Block block) {
         Node node = this.currentSideEffect.get(block);
         if (node != null) {
-            return node;
+            return replacement(node);
         }
         return readSideEffectRecursive(block);
     }
@@ -175,8 +232,8 @@ class GraphConstructor {
             val = new Phi(block);
             Phi old = this.incompleteSideEffectPhis.put(block, (Phi) val);
             assert old == null : "double readSideEffectRecursive for " + block;
-        } else if (block.predecessors().size() == 1) {
-            val = readSideEffect(block.predecessors().getFirst().block());
+        } else if (block.predecessorCount() == 1) {
+            val = readSideEffect(block.predecessor(0).block());
         } else {
             val = new Phi(block);
             writeSideEffect(block, val);
@@ -187,8 +244,9 @@ class GraphConstructor {
     }
 
     Node addPhiOperands(Phi phi) {
-        for (Node pred : phi.block().predecessors()) {
-            phi.appendOperand(readSideEffect(pred.block()));
+        Block block = phi.block();
+        for (int i = 0; i < block.predecessorCount(); i++) {
+            phi.appendOperand(readSideEffect(block.predecessor(i).block()));
         }
         return tryRemoveTrivialPhi(phi);
     }
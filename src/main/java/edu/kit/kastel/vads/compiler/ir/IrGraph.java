@@ -2,55 +2,255 @@ package edu.kit.kastel.vads.compiler.ir;
 
 import edu.kit.kastel.vads.compiler.ir.node.Block;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
+import org.jspecify.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Predicate;
 
+/// Nodes are numbered densely in the order they are created, see [Node#id()].
+/// Their successors are stored in arrays indexed by that id, with one entry per edge.
 public class IrGraph {
-    private final Map<Node, SequencedSet<Node>> successors = new IdentityHashMap<>();
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Node[] nodes = new Node[INITIAL_CAPACITY];
+    // the successors of a node are null until it gets its first one
+    private Node[][] successors = new Node[INITIAL_CAPACITY][];
+    private int[] successorCounts = new int[INITIAL_CAPACITY];
+    private int nodeCount;
     private final Block startBlock;
     private final Block endBlock;
     private final String name;
+    // null if this graph doesn't keep debug info, so nodes don't pay for it
+    private @Nullable DebugInfo @Nullable [] debugInfos;
+    private DebugInfo currentDebugInfo = DebugInfo.NoInfo.INSTANCE;
+    // cleared whenever an edge is added or removed
+    private @Nullable List<Node> controlFlowOrder;
 
     public IrGraph(String name) {
+        this(name, true);
+    }
+
+    public IrGraph(String name, boolean debugInfo) {
         this.name = name;
+        this.debugInfos = debugInfo ? new DebugInfo[INITIAL_CAPACITY] : null;
         this.startBlock = new Block(this);
         this.endBlock = new Block(this);
     }
 
+    /// Adds a newly created node to this graph and attaches the current debug info to it.
+    /// {@return the id of the node}
+    public int register(Node node) {
+        int id = this.nodeCount;
+        if (id == this.nodes.length) {
+            int capacity = id + (id >> 1);
+            this.nodes = Arrays.copyOf(this.nodes, capacity);
+            this.successors = Arrays.copyOf(this.successors, capacity);
+            this.successorCounts = Arrays.copyOf(this.successorCounts, capacity);
+            if (this.debugInfos != null) {
+                this.debugInfos = Arrays.copyOf(this.debugInfos, capacity);
+            }
+        }
+        this.nodes[id] = node;
+        if (this.debugInfos != null && this.currentDebugInfo != DebugInfo.NoInfo.INSTANCE) {
+            this.debugInfos[id] = this.currentDebugInfo;
+        }
+        this.nodeCount++;
+        return id;
+    }
+
+    /// Records the edge from `node` to `successor`.
+    /// A successor that uses the node several times is recorded once for each use.
     public void registerSuccessor(Node node, Node successor) {
-        this.successors.computeIfAbsent(node, _ -> new LinkedHashSet<>()).add(successor);
+        int id = node.id();
+        Node[] successors = this.successors[id];
+        int count = this.successorCounts[id];
+        if (successors == null) {
+            successors = new Node[2];
+            this.successors[id] = successors;
+        } else if (count == successors.length) {
+            successors = Arrays.copyOf(successors, count * 2);
+            this.successors[id] = successors;
+        }
+        successors[count] = successor;
+        this.successorCounts[id] = count + 1;
+        this.controlFlowOrder = null;
     }
 
+    /// Removes one edge from `node` to `oldSuccessor`, the order of the other successors is kept.
     public void removeSuccessor(Node node, Node oldSuccessor) {
-        this.successors.computeIfAbsent(node, _ -> new LinkedHashSet<>()).remove(oldSuccessor);
+        int id = node.id();
+        Node[] successors = this.successors[id];
+        int count = this.successorCounts[id];
+        for (int i = 0; i < count; i++) {
+            if (successors[i] == oldSuccessor) {
+                System.arraycopy(successors, i + 1, successors, i, count - i - 1);
+                successors[count - 1] = null;
+                this.successorCounts[id] = count - 1;
+                this.controlFlowOrder = null;
+                return;
+            }
+        }
     }
 
-    /// {@return the set of nodes that have the given node as one of their inputs}
-    public Set<Node> successors(Node node) {
-        SequencedSet<Node> successors = this.successors.get(node);
-        if (successors == null) {
-            return Set.of();
+    /// Makes every node that uses `node` use `replacement` instead.
+    public void replaceAllUses(Node node, Node replacement) {
+        // setPredecessor changes the successors of node
+        for (Node user : List.copyOf(successors(node))) {
+            for (int i = 0; i < user.predecessorCount(); i++) {
+                if (user.predecessor(i) == node) {
+                    user.setPredecessor(i, replacement);
+                }
+            }
+        }
+    }
+
+    public DebugInfo debugInfo(Node node) {
+        DebugInfo debugInfo = this.debugInfos == null ? null : this.debugInfos[node.id()];
+        return debugInfo == null ? DebugInfo.NoInfo.INSTANCE : debugInfo;
+    }
+
+    public boolean keepsDebugInfo() {
+        return this.debugInfos != null;
+    }
+
+    DebugInfo currentDebugInfo() {
+        return this.currentDebugInfo;
+    }
+
+    void setCurrentDebugInfo(DebugInfo debugInfo) {
+        this.currentDebugInfo = debugInfo;
+    }
+
+    /// {@return a read-only view of the nodes that have the given node as one of their inputs}
+    /// A node that uses the given one several times is contained once per use.
+    /// The view reflects later changes of the graph.
+    public List<Node> successors(Node node) {
+        return new SuccessorView(node.id());
+    }
+
+    public int successorCount(Node node) {
+        return this.successorCounts[node.id()];
+    }
+
+    public Node successor(Node node, int index) {
+        Objects.checkIndex(index, this.successorCounts[node.id()]);
+        return this.successors[node.id()][index];
+    }
+
+    /// {@return the number of nodes created in this graph, all ids are below it}
+    public int nodeCount() {
+        return this.nodeCount;
+    }
+
+    /// {@return the node with the given id, or `null` if it was removed}
+    /// Only [#removeNodesExcept] removes nodes, so the ids of nodes created since its last call are never `null`.
+    public @Nullable Node node(int id) {
+        Objects.checkIndex(id, this.nodeCount);
+        return this.nodes[id];
+    }
+
+    /// Removes every node whose id isn't set in `live`, together with its edges.
+    /// Live nodes must not use removed ones. Ids are not reused, so removed nodes leave gaps.
+    /// {@return the number of nodes that were removed}
+    public int removeNodesExcept(BitSet live) {
+        int removed = 0;
+        for (int id = 0; id < this.nodeCount; id++) {
+            if (this.nodes[id] == null) {
+                continue;
+            }
+            if (!live.get(id)) {
+                this.nodes[id] = null;
+                this.successors[id] = null;
+                this.successorCounts[id] = 0;
+                if (this.debugInfos != null) {
+                    this.debugInfos[id] = null;
+                }
+                removed++;
+                continue;
+            }
+            // all edges at once, removeSuccessor would be quadratic for nodes with many dead users
+            Node[] successors = this.successors[id];
+            int count = this.successorCounts[id];
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (live.get(successors[i].id())) {
+                    successors[kept++] = successors[i];
+                }
+            }
+            if (kept < count) {
+                Arrays.fill(successors, kept, count, null);
+                this.successorCounts[id] = kept;
+            }
         }
-        return Set.copyOf(successors);
+        // the edges between live nodes are unchanged, so a cached control flow order stays valid
+        return removed;
     }
 
+    /// {@return the nodes reachable from the end block, each one after all of its predecessors}
+    /// The order is computed once and kept until an edge of the graph changes, the list is read-only.
     public List<Node> getControlFlowOrder() {
-        List<Node> controlFlowOrder = new ArrayList<>();
-        Set<Node> visited = new HashSet<>();
-        visited.add(endBlock);
-        traverseControlFlow(endBlock(), visited, controlFlowOrder);
-        return controlFlowOrder;
+        List<Node> order = this.controlFlowOrder;
+        if (order == null) {
+            order = Collections.unmodifiableList(computeControlFlowOrder());
+            this.controlFlowOrder = order;
+        }
+        return order;
     }
 
-    private void traverseControlFlow(Node node, Set<Node> visited, List<Node> controlFlowOrder) {
-        for (Node predecessors : node.predecessors()) {
-            if (!visited.contains(predecessors)) {
+    /// {@return all nodes reachable from the end block, each one after all of its predecessors}
+    /// Unlike [#getControlFlowOrder()], this contains nodes equal to another one as well, and it is not cached.
+    public List<Node> reachableNodes() {
+        BitSet visited = new BitSet(this.nodeCount);
+        return postorder(node -> {
+            if (visited.get(node.id())) {
+                return false;
+            }
+            visited.set(node.id());
+            return true;
+        });
+    }
+
+    private List<Node> computeControlFlowOrder() {
+        // a node equal to one visited before is skipped, the backends look up its register by equality
+        Set<Node> visited = HashSet.newHashSet(this.nodeCount);
+        return postorder(visited::add);
+    }
 
-                visited.add(predecessors);
-                traverseControlFlow(predecessors, visited, controlFlowOrder);
+    // a walk along the predecessors with an explicit stack, as long chains of
+    // operations would overflow the call stack. firstVisit marks a node as visited
+    // and tells whether it wasn't before.
+    private List<Node> postorder(Predicate<Node> firstVisit) {
+        List<Node> order = new ArrayList<>();
+        Node[] stack = new Node[INITIAL_CAPACITY];
+        // the index of the predecessor to look at next, per stack entry
+        int[] nextPredecessor = new int[INITIAL_CAPACITY];
+        int depth = 1;
+        stack[0] = this.endBlock;
+        firstVisit.test(this.endBlock);
+        while (depth > 0) {
+            Node node = stack[depth - 1];
+            int next = nextPredecessor[depth - 1];
+            if (next == node.predecessorCount()) {
+                order.add(node);
+                depth--;
+                continue;
+            }
+            nextPredecessor[depth - 1] = next + 1;
+            Node predecessor = node.predecessor(next);
+            if (!firstVisit.test(predecessor)) {
+                continue;
             }
+            if (depth == stack.length) {
+                int capacity = depth + (depth >> 1);
+                stack = Arrays.copyOf(stack, capacity);
+                nextPredecessor = Arrays.copyOf(nextPredecessor, capacity);
+            }
+            stack[depth] = predecessor;
+            nextPredecessor[depth] = 0;
+            depth++;
         }
-        controlFlowOrder.add(node);
+        return order;
     }
 
     public Block startBlock() {
@@ -65,4 +265,23 @@ public class IrGraph {
     public String name() {
         return name;
     }
+
+    private final class SuccessorView extends AbstractList<Node> implements RandomAccess {
+        private final int id;
+
+        SuccessorView(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Node get(int index) {
+            Objects.checkIndex(index, size());
+            return IrGraph.this.successors[this.id][index];
+        }
+
+        @Override
+        public int size() {
+            return IrGraph.this.successorCounts[this.id];
+        }
+    }
 }
@@ -6,7 +6,6 @@ import edu.kit.kastel.vads.compiler.ir.node.ModNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
 import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
 import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
 import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
@@ -25,8 +24,6 @@ import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Optional;
 import java.util.function.BinaryOperator;
 
@@ -42,12 +39,17 @@ public class SsaTranslation {
   private final GraphConstructor constructor;
 
   public SsaTranslation(FunctionTree function, Optimizer optimizer) {
+    this(function, optimizer, true);
+  }
+
+  /// Without `debugInfo`, the nodes of the graph don't get the source spans they were translated from.
+  public SsaTranslation(FunctionTree function, Optimizer optimizer, boolean debugInfo) {
     this.function = function;
-    this.constructor = new GraphConstructor(optimizer, function.name().name().asString());
+    this.constructor = new GraphConstructor(optimizer, function.name().name().asString(), debugInfo);
   }
 
   public IrGraph translate() {
-    var visitor = new SsaTranslationVisitor();
+    var visitor = new SsaTranslationVisitor(this.constructor);
     this.function.accept(visitor, this);
     return this.constructor.graph();
   }
@@ -69,15 +71,23 @@ public class SsaTranslation {
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private static final Optional<Node> NOT_AN_EXPRESSION = Optional.empty();
 
-    private final Deque<DebugInfo> debugStack = new ArrayDeque<>();
+    private final GraphConstructor constructor;
+
+    SsaTranslationVisitor(GraphConstructor constructor) {
+      this.constructor = constructor;
+    }
 
     private void pushSpan(Tree tree) {
-      this.debugStack.push(DebugInfoHelper.getDebugInfo());
-      DebugInfoHelper.setDebugInfo(new DebugInfo.SourceInfo(tree.span()));
+      // computing the span of a tree isn't free, so skip it if the graph doesn't keep it
+      if (this.constructor.keepsDebugInfo()) {
+        this.constructor.pushDebugInfo(new DebugInfo.SourceInfo(tree.span()));
+      }
     }
 
     private void popSpan() {
-      DebugInfoHelper.setDebugInfo(this.debugStack.pop());
+      if (this.constructor.keepsDebugInfo()) {
+        this.constructor.popDebugInfo();
+      }
     }
 
     @Override
@@ -171,7 +181,7 @@ public class SsaTranslation {
     @Override
     public Optional<Node> visit(LiteralTree literalTree, SsaTranslation data) {
       pushSpan(literalTree);
-      Node node = data.constructor.newConstInt((int) literalTree.parseValue().orElseThrow());
+      Node node = data.constructor.newConstInt(literalTree.intValue());
       popSpan();
       return Optional.of(node);
     }
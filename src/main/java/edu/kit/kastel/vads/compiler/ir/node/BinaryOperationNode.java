@@ -1,6 +1,6 @@
 package edu.kit.kastel.vads.compiler.ir.node;
 
-public sealed abstract class BinaryOperationNode extends Node permits AddNode, DivNode, ModNode, MulNode, SubNode {
+public sealed abstract class BinaryOperationNode extends Node permits AddNode, DivNode, ModNode, MulNode, ShlNode, SubNode {
     public static final int LEFT = 0;
     public static final int RIGHT = 1;
 
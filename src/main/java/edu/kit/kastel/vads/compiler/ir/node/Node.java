@@ -2,45 +2,59 @@ package edu.kit.kastel.vads.compiler.ir.node;
 
 import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /// The base class for all nodes.
 public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNode, Phi, ProjNode, ReturnNode, StartNode {
     private final IrGraph graph;
+    private final int id;
     private final Block block;
     private final List<Node> predecessors = new ArrayList<>();
-    private final DebugInfo debugInfo;
+    private final List<Node> predecessorView = Collections.unmodifiableList(this.predecessors);
 
     protected Node(Block block, Node... predecessors) {
         this.graph = block.graph();
+        this.id = this.graph.register(this);
         this.block = block;
         this.predecessors.addAll(List.of(predecessors));
         for (Node predecessor : predecessors) {
             graph.registerSuccessor(predecessor, this);
         }
-        this.debugInfo = DebugInfoHelper.getDebugInfo();
     }
 
     protected Node(IrGraph graph) {
         assert this.getClass() == Block.class : "must be used by Block only";
         this.graph = graph;
+        this.id = graph.register(this);
         this.block = (Block) this;
-        this.debugInfo = DebugInfo.NoInfo.INSTANCE;
     }
 
     public final IrGraph graph() {
         return this.graph;
     }
 
+    /// {@return the id of this node, unique within its graph}
+    /// Ids are assigned densely from `0` in the order nodes are created.
+    public final int id() {
+        return this.id;
+    }
+
     public final Block block() {
         return this.block;
     }
 
+    /// {@return a read-only view of the inputs of this node}
+    /// The view is not a copy, it reflects later changes of the predecessors.
+    /// Each call returns the same view.
     public final List<? extends Node> predecessors() {
-        return List.copyOf(this.predecessors);
+        return this.predecessorView;
+    }
+
+    public final int predecessorCount() {
+        return this.predecessors.size();
     }
 
     public final void setPredecessor(int idx, Node node) {
@@ -68,7 +82,7 @@ public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNo
     }
 
     public DebugInfo debugInfo() {
-        return debugInfo;
+        return this.graph.debugInfo(this);
     }
 
     protected static int predecessorHash(Node node, int predecessor) {
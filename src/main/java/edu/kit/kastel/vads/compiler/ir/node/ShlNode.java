@@ -0,0 +1,9 @@
+package edu.kit.kastel.vads.compiler.ir.node;
+
+/// Shifts the left operand to the left by the right one, a constant between `0` and `31`.
+/// There is no source operator for it, it replaces multiplications by constants.
+public final class ShlNode extends BinaryOperationNode {
+    public ShlNode(Block block, Node left, Node right) {
+        super(block, left, right);
+    }
+}
@@ -0,0 +1,126 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+
+import static edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode.LEFT;
+import static edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode.RIGHT;
+
+/// Applies algebraic identities to additions, subtractions and multiplications, and replaces multiplications
+/// by constants with shifts and additions where possible.
+///
+/// Every rewrite holds for 32-bit integers that wrap around on overflow. Operations on two constants are left
+/// to [ConstantFolding]. Constants of commutative operations are moved to the right, and `x - c` becomes
+/// `x + (-c)`, so chains of constants only need to be combined in one shape.
+public class AlgebraicSimplification implements Optimizer {
+    @Override
+    public Node transform(Node node) {
+        return switch (node) {
+            case AddNode add -> simplifyAdd(add);
+            case SubNode sub -> simplifySub(sub);
+            case MulNode mul -> simplifyMul(mul);
+            default -> node;
+        };
+    }
+
+    private static Node simplifyAdd(AddNode add) {
+        Node left = add.predecessor(LEFT);
+        Node right = add.predecessor(RIGHT);
+        if (left instanceof ConstIntNode && !(right instanceof ConstIntNode)) {
+            return new AddNode(add.block(), right, left);
+        }
+        if (!(right instanceof ConstIntNode c) || left instanceof ConstIntNode) {
+            return add;
+        }
+        if (c.value() == 0) {
+            return left;
+        }
+        // (x + c1) + c2 -> x + (c1 + c2)
+        if (left instanceof AddNode inner && inner.predecessor(RIGHT) instanceof ConstIntNode c1
+            && !(inner.predecessor(LEFT) instanceof ConstIntNode)) {
+            return new AddNode(add.block(), inner.predecessor(LEFT), constant(add, c1.value() + c.value()));
+        }
+        return add;
+    }
+
+    private static Node simplifySub(SubNode sub) {
+        Node left = sub.predecessor(LEFT);
+        Node right = sub.predecessor(RIGHT);
+        if (left == right) {
+            return constant(sub, 0);
+        }
+        if (right instanceof ConstIntNode c && !(left instanceof ConstIntNode)) {
+            if (c.value() == 0) {
+                return left;
+            }
+            // -MIN_VALUE is MIN_VALUE again, which is still right with wraparound
+            return new AddNode(sub.block(), left, constant(sub, -c.value()));
+        }
+        // 0 - (0 - x) -> x
+        if (isConstant(left, 0) && right instanceof SubNode inner && isConstant(inner.predecessor(LEFT), 0)) {
+            return inner.predecessor(RIGHT);
+        }
+        return sub;
+    }
+
+    private static Node simplifyMul(MulNode mul) {
+        Node left = mul.predecessor(LEFT);
+        Node right = mul.predecessor(RIGHT);
+        if (left instanceof ConstIntNode && !(right instanceof ConstIntNode)) {
+            return new MulNode(mul.block(), right, left);
+        }
+        if (!(right instanceof ConstIntNode c) || left instanceof ConstIntNode) {
+            return mul;
+        }
+        if (c.value() == 0) {
+            return right;
+        }
+        if (c.value() == 1) {
+            return left;
+        }
+        if (c.value() == -1) {
+            return new SubNode(mul.block(), constant(mul, 0), left);
+        }
+        // (x * c1) * c2 -> x * (c1 * c2)
+        if (left instanceof MulNode inner && inner.predecessor(RIGHT) instanceof ConstIntNode c1
+            && !(inner.predecessor(LEFT) instanceof ConstIntNode)) {
+            return new MulNode(mul.block(), inner.predecessor(LEFT), constant(mul, c1.value() * c.value()));
+        }
+        return strengthReduce(mul, left, c.value());
+    }
+
+    /// Replaces `x * c` by a shift, or a shift and an addition or subtraction, if `c` allows it.
+    /// Shifting by `k` is the same as multiplying by `2^k`, also if it overflows.
+    private static Node strengthReduce(MulNode mul, Node x, int c) {
+        if (Integer.bitCount(c) == 1) {
+            // this includes MIN_VALUE, which is 2^31
+            return shiftLeft(mul, x, Integer.numberOfTrailingZeros(c));
+        }
+        if (Integer.bitCount(c - 1) == 1) {
+            // x * (2^k + 1) -> (x << k) + x
+            return new AddNode(mul.block(), shiftLeft(mul, x, Integer.numberOfTrailingZeros(c - 1)), x);
+        }
+        if (Integer.bitCount(c + 1) == 1) {
+            // x * (2^k - 1) -> (x << k) - x
+            return new SubNode(mul.block(), shiftLeft(mul, x, Integer.numberOfTrailingZeros(c + 1)), x);
+        }
+        return mul;
+    }
+
+    private static Node shiftLeft(MulNode mul, Node x, int amount) {
+        return new ShlNode(mul.block(), x, constant(mul, amount));
+    }
+
+    private static boolean isConstant(Node node, int value) {
+        return node instanceof ConstIntNode c && c.value() == value;
+    }
+
+    // constants are kept in the start block, like the graph constructor does
+    private static Node constant(Node node, int value) {
+        return new ConstIntNode(node.graph().startBlock(), value);
+    }
+}
@@ -7,6 +7,7 @@ import edu.kit.kastel.vads.compiler.ir.node.AddNode;
 import edu.kit.kastel.vads.compiler.ir.node.DivNode;
 import edu.kit.kastel.vads.compiler.ir.node.ModNode;
 import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
 import edu.kit.kastel.vads.compiler.ir.node.SubNode;
 
 
@@ -28,19 +29,17 @@ public class ConstantFolding implements Optimizer {
                     case AddNode _ -> result = leftValue + rightValue;
                     case SubNode _ -> result =  leftValue - rightValue;
                     case MulNode _ -> result =  leftValue * rightValue;
+                    case ShlNode _ -> result = leftValue << rightValue;
                     case DivNode _ -> {
-                        if (((ConstIntNode) right).value() == 0) {
-                            return new DivNode(node.block(), left, right, predecessorSkipProj(binaryOperationNode, DivNode.SIDE_EFFECT));
-                        } else if (leftValue== Integer.MIN_VALUE && rightValue==-1) {
+                        // both trap at runtime, which must be kept
+                        if (rightValue == 0 || (leftValue == Integer.MIN_VALUE && rightValue == -1)) {
                             return node;
                         } else {
                             result =  leftValue / rightValue;
                         }
                     }
                     case ModNode _ -> {
-                        if (rightValue == 0) {
-                            return new ModNode(node.block(), left, right, predecessorSkipProj(binaryOperationNode, ModNode.SIDE_EFFECT));
-                        } else if (leftValue== Integer.MIN_VALUE&&rightValue==-1) {
+                        if (rightValue == 0 || (leftValue == Integer.MIN_VALUE && rightValue == -1)) {
                             return node;
                         } else {
                             result = leftValue % rightValue;
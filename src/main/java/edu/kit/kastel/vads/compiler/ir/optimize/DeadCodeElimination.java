@@ -0,0 +1,48 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/// Removes the nodes that don't contribute to the result of a function, with mark and sweep.
+///
+/// A node is live if the end block reaches it along predecessors and blocks. Everything else is left over from
+/// construction and optimization, like the operands of a folded node or a node replaced by an equal one. Live
+/// nodes with a side effect stay, even if their value is unused, as they are reached through the side effect.
+/// Dead nodes are removed from the graph and from the successors of live nodes, so walking successors only
+/// finds live nodes afterwards.
+public final class DeadCodeElimination {
+    private DeadCodeElimination() {
+
+    }
+
+    /// {@return the number of nodes that were removed}
+    public static int eliminate(IrGraph graph) {
+        return graph.removeNodesExcept(mark(graph));
+    }
+
+    private static BitSet mark(IrGraph graph) {
+        BitSet live = new BitSet(graph.nodeCount());
+        Deque<Node> worklist = new ArrayDeque<>();
+        live.set(graph.endBlock().id());
+        worklist.push(graph.endBlock());
+        while (!worklist.isEmpty()) {
+            Node node = worklist.pop();
+            markLive(live, worklist, node.block());
+            for (int i = 0; i < node.predecessorCount(); i++) {
+                markLive(live, worklist, node.predecessor(i));
+            }
+        }
+        return live;
+    }
+
+    private static void markLive(BitSet live, Deque<Node> worklist, Node node) {
+        if (!live.get(node.id())) {
+            live.set(node.id());
+            worklist.push(node);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import org.jspecify.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/// Replaces a node by an earlier one that computes the same value, in the same block or in one dominating it.
+///
+/// Unlike [LocalValueNumbering], this doesn't depend on [Node#equals(Object)] and [Node#hashCode()].
+/// Nodes are identified by their kind, their constant value and the ids of their inputs instead of identity
+/// hash codes. The inputs are the already numbered nodes, so comparing them by id suffices.
+/// The operands of commutative operations are ordered by id, so `x + y` and `y + x` get the same number.
+/// [DivNode] and [ModNode] also include the side effect they depend on, so they are only merged if
+/// nothing with a side effect happened in between.
+///
+/// The only dominance this knows about is that the start block dominates every other block.
+/// One instance must only be used for a single graph.
+public class GlobalValueNumbering implements Optimizer {
+    private static final int NONE = -1;
+
+    private final Map<ValueKey, Node> knownNodes = new HashMap<>();
+    // the key each node in knownNodes is stored under
+    private final Map<Node, ValueKey> keys = new IdentityHashMap<>();
+
+    private record ValueKey(Class<? extends Node> kind, int block, int value, int left, int right, int sideEffect) {
+    }
+
+    @Override
+    public Node transform(Node node) {
+        ValueKey key = key(node, node.block());
+        if (key == null) {
+            return node;
+        }
+        ValueKey previous = this.keys.get(node);
+        if (previous != null && !previous.equals(key)) {
+            // the inputs of the node were replaced since it was numbered, it doesn't compute the old value anymore
+            this.knownNodes.remove(previous, node);
+            this.keys.remove(node);
+        }
+        Node known = this.knownNodes.get(key);
+        Block startBlock = node.graph().startBlock();
+        if (known == null && node.block() != startBlock) {
+            // the start block dominates the block of the node
+            known = this.knownNodes.get(key(node, startBlock));
+        }
+        if (known != null) {
+            return known;
+        }
+        this.knownNodes.put(key, node);
+        this.keys.put(node, key);
+        return node;
+    }
+
+    private static @Nullable ValueKey key(Node node, Block block) {
+        return switch (node) {
+            case ConstIntNode c -> new ValueKey(ConstIntNode.class, block.id(), c.value(), NONE, NONE, NONE);
+            case BinaryOperationNode b -> {
+                int left = b.predecessor(BinaryOperationNode.LEFT).id();
+                int right = b.predecessor(BinaryOperationNode.RIGHT).id();
+                if ((b instanceof AddNode || b instanceof MulNode) && right < left) {
+                    int tmp = left;
+                    left = right;
+                    right = tmp;
+                }
+                int sideEffect = switch (b) {
+                    case DivNode div -> div.predecessor(DivNode.SIDE_EFFECT).id();
+                    case ModNode mod -> mod.predecessor(ModNode.SIDE_EFFECT).id();
+                    default -> NONE;
+                };
+                yield new ValueKey(b.getClass(), block.id(), 0, left, right, sideEffect);
+            }
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/// Runs optimizers over a finished graph until none of them changes it anymore.
+///
+/// Every reachable node is visited once, inputs first. When an optimizer replaces a node, the users of the node
+/// are rewired to the replacement. The users, the replacement and the nodes the optimizer created are visited
+/// (again), as they may allow further rewrites now. On each visit, the optimizers are applied in the order
+/// they were added, until one of them replaces the node.
+///
+/// Optimizers must return the node itself if they don't change it, or this never terminates.
+/// Optimizers with state, like [GlobalValueNumbering], must only be used for a single graph.
+public final class OptimizationPipeline {
+    private final List<Pass> passes = new ArrayList<>();
+    private long iterations;
+
+    /// The work one optimizer did in the last [#run(IrGraph)].
+    /// `visits` counts the nodes it was applied to, `replacements` the nodes it replaced.
+    public record PassStatistics(String name, long visits, long replacements, long nanos) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d visits, %d replacements, %.3f ms", name, visits, replacements, nanos / 1e6);
+        }
+    }
+
+    private static final class Pass {
+        private final String name;
+        private final Optimizer optimizer;
+        private long visits;
+        private long replacements;
+        private long nanos;
+
+        Pass(String name, Optimizer optimizer) {
+            this.name = name;
+            this.optimizer = optimizer;
+        }
+    }
+
+    public OptimizationPipeline add(Optimizer optimizer) {
+        return add(optimizer.getClass().getSimpleName(), optimizer);
+    }
+
+    public OptimizationPipeline add(String name, Optimizer optimizer) {
+        this.passes.add(new Pass(name, optimizer));
+        return this;
+    }
+
+    public void run(IrGraph graph) {
+        this.iterations = 0;
+        for (Pass pass : this.passes) {
+            pass.visits = 0;
+            pass.replacements = 0;
+            pass.nanos = 0;
+        }
+        Deque<Node> worklist = new ArrayDeque<>();
+        BitSet queued = new BitSet(graph.nodeCount());
+        for (Node node : graph.reachableNodes()) {
+            worklist.add(node);
+            queued.set(node.id());
+        }
+        while (!worklist.isEmpty()) {
+            Node node = worklist.poll();
+            queued.clear(node.id());
+            this.iterations++;
+            for (Pass pass : this.passes) {
+                int nodeCount = graph.nodeCount();
+                long start = System.nanoTime();
+                Node replacement = pass.optimizer.transform(node);
+                pass.nanos += System.nanoTime() - start;
+                pass.visits++;
+                if (replacement != node) {
+                    pass.replacements++;
+                    for (Node user : replace(graph, node, replacement)) {
+                        enqueue(worklist, queued, user);
+                    }
+                    // the replacement and other nodes the optimizer created for it, nothing removes them in between
+                    for (int id = nodeCount; id < graph.nodeCount(); id++) {
+                        enqueue(worklist, queued, Objects.requireNonNull(graph.node(id)));
+                    }
+                    enqueue(worklist, queued, replacement);
+                    break;
+                }
+            }
+        }
+    }
+
+    /// {@return the number of nodes taken from the worklist in the last run}
+    public long iterations() {
+        return this.iterations;
+    }
+
+    /// {@return the statistics of the last run, one entry per optimizer}
+    public List<PassStatistics> statistics() {
+        return this.passes.stream()
+            .map(pass -> new PassStatistics(pass.name, pass.visits, pass.replacements, pass.nanos))
+            .toList();
+    }
+
+    /// Rewires the users of `node` to `replacement`.
+    /// {@return the nodes whose inputs changed}
+    private static List<Node> replace(IrGraph graph, Node node, Node replacement) {
+        List<Node> users = List.copyOf(graph.successors(node));
+        if (!hasSideEffect(node) || hasSideEffect(replacement)) {
+            graph.replaceAllUses(node, replacement);
+            return users;
+        }
+        // the replacement has no side effect, so the side effect projection
+        // now stands for the side effect the node depended on
+        List<Node> changed = new ArrayList<>();
+        for (Node user : users) {
+            if (user instanceof ProjNode proj) {
+                Node value = proj.projectionInfo() == ProjNode.SimpleProjectionInfo.SIDE_EFFECT
+                    ? sideEffect(node)
+                    : replacement;
+                changed.addAll(graph.successors(proj));
+                graph.replaceAllUses(proj, value);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean hasSideEffect(Node node) {
+        return node instanceof DivNode || node instanceof ModNode;
+    }
+
+    private static Node sideEffect(Node node) {
+        return switch (node) {
+            case DivNode div -> div.predecessor(DivNode.SIDE_EFFECT);
+            case ModNode mod -> mod.predecessor(ModNode.SIDE_EFFECT);
+            default -> throw new IllegalArgumentException("no side effect: " + node);
+        };
+    }
+
+    private static void enqueue(Deque<Node> worklist, BitSet queued, Node node) {
+        if (!queued.get(node.id())) {
+            queued.set(node.id());
+            worklist.add(node);
+        }
+    }
+}
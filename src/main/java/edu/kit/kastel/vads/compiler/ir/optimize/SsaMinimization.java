@@ -0,0 +1,155 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/// Removes sets of phis that only merge a single value among themselves, as described in section 3.2 of
+/// [`Simple and Efficient Construction of Static Single Assignment Form`](https://compilers.cs.uni-saarland.de/papers/bbhlmz13cc.pdf).
+///
+/// Removing trivial phis while the graph is constructed can't find these, they show up with irreducible
+/// control flow. Every strongly connected component of phis with a single operand from outside is replaced
+/// by that operand. Otherwise, the phis of the component that only use phis of the component are checked the
+/// same way.
+public final class SsaMinimization {
+    private final IrGraph graph;
+    // indexed by node id, cluster holds the mark of the last set of phis that was split into components
+    private final int[] cluster;
+    private final int[] index;
+    private final int[] lowLink;
+    private final boolean[] onStack;
+    private int clusterCount;
+    private int removed;
+
+    private SsaMinimization(IrGraph graph) {
+        this.graph = graph;
+        this.cluster = new int[graph.nodeCount()];
+        this.index = new int[graph.nodeCount()];
+        this.lowLink = new int[graph.nodeCount()];
+        this.onStack = new boolean[graph.nodeCount()];
+    }
+
+    /// {@return the number of phis that were replaced}
+    public static int minimize(IrGraph graph) {
+        List<Phi> phis = new ArrayList<>();
+        for (Node node : graph.getControlFlowOrder()) {
+            if (node instanceof Phi phi) {
+                phis.add(phi);
+            }
+        }
+        SsaMinimization minimization = new SsaMinimization(graph);
+        minimization.removeRedundantPhis(phis);
+        return minimization.removed;
+    }
+
+    private void removeRedundantPhis(List<Phi> phis) {
+        for (List<Phi> component : stronglyConnectedComponents(phis)) {
+            Set<Node> members = identitySet();
+            members.addAll(component);
+            Set<Node> outerOperands = identitySet();
+            List<Phi> inner = new ArrayList<>();
+            for (Phi phi : component) {
+                boolean isInner = true;
+                for (int i = 0; i < phi.predecessorCount(); i++) {
+                    Node operand = phi.predecessor(i);
+                    if (!members.contains(operand)) {
+                        outerOperands.add(operand);
+                        isInner = false;
+                    }
+                }
+                if (isInner) {
+                    inner.add(phi);
+                }
+            }
+            if (outerOperands.size() == 1) {
+                Node value = outerOperands.iterator().next();
+                for (Phi phi : component) {
+                    this.graph.replaceAllUses(phi, value);
+                }
+                this.removed += component.size();
+            } else if (outerOperands.size() > 1 && !inner.isEmpty()) {
+                removeRedundantPhis(inner);
+            }
+        }
+    }
+
+    /// Tarjan's algorithm on the given phis and the edges to their operands among them,
+    /// with an explicit stack as the phis of long chains of blocks would overflow the call stack.
+    /// {@return the components, each one after the components its phis use}
+    private List<List<Phi>> stronglyConnectedComponents(List<Phi> phis) {
+        int mark = ++this.clusterCount;
+        for (Phi phi : phis) {
+            this.cluster[phi.id()] = mark;
+            this.index[phi.id()] = 0;
+        }
+        List<List<Phi>> components = new ArrayList<>();
+        Deque<Phi> componentStack = new ArrayDeque<>();
+        Phi[] callStack = new Phi[phis.size()];
+        // the index of the operand to look at next, per call stack entry
+        int[] nextOperand = new int[phis.size()];
+        int counter = 0;
+        for (Phi root : phis) {
+            if (this.index[root.id()] != 0) {
+                continue;
+            }
+            int depth = 0;
+            @Nullable Phi next = root;
+            while (true) {
+                if (next != null) {
+                    counter++;
+                    this.index[next.id()] = counter;
+                    this.lowLink[next.id()] = counter;
+                    this.onStack[next.id()] = true;
+                    componentStack.push(next);
+                    callStack[depth] = next;
+                    nextOperand[depth] = 0;
+                    depth++;
+                    next = null;
+                }
+                Phi phi = callStack[depth - 1];
+                int i = nextOperand[depth - 1];
+                if (i < phi.predecessorCount()) {
+                    nextOperand[depth - 1] = i + 1;
+                    if (phi.predecessor(i) instanceof Phi operand && this.cluster[operand.id()] == mark) {
+                        if (this.index[operand.id()] == 0) {
+                            next = operand;
+                        } else if (this.onStack[operand.id()]) {
+                            this.lowLink[phi.id()] = Math.min(this.lowLink[phi.id()], this.index[operand.id()]);
+                        }
+                    }
+                    continue;
+                }
+                if (this.lowLink[phi.id()] == this.index[phi.id()]) {
+                    List<Phi> component = new ArrayList<>();
+                    Phi member;
+                    do {
+                        member = componentStack.pop();
+                        this.onStack[member.id()] = false;
+                        component.add(member);
+                    } while (member != phi);
+                    components.add(component);
+                }
+                depth--;
+                if (depth == 0) {
+                    break;
+                }
+                Phi caller = callStack[depth - 1];
+                this.lowLink[caller.id()] = Math.min(this.lowLink[caller.id()], this.lowLink[phi.id()]);
+            }
+        }
+        return components;
+    }
+
+    private static Set<Node> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
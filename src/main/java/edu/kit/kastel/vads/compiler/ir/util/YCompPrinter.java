@@ -50,8 +50,8 @@ public class YCompPrinter {
                 .add(node);
             prepare(node.block(), seen);
         }
-        for (Node predecessor : node.predecessors()) {
-            prepare(predecessor, seen);
+        for (int i = 0; i < node.predecessorCount(); i++) {
+            prepare(node.predecessor(i), seen);
         }
         if (node == this.graph.endBlock()) {
             this.clusters.put(this.graph.endBlock(), Set.of());
@@ -144,7 +144,7 @@ public class YCompPrinter {
     }
 
     private String formatInputEdges(Node node) {
-        var edges = IntStream.range(0, node.predecessors().size())
+        var edges = IntStream.range(0, node.predecessorCount())
             .mapToObj(
                 idx -> new Edge(
                     node.predecessor(idx), node, idx, edgeColor(node.predecessor(idx), node)
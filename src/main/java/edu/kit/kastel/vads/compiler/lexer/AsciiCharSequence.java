@@ -0,0 +1,87 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/// A read-only view of ASCII encoded bytes as characters, e.g. of a memory-mapped file.
+/// Bytes are widened on access, no decoded copy of the input is created.
+final class AsciiCharSequence implements CharSequence {
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LOWEST_BYTES = 0x0101010101010101L;
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    AsciiCharSequence(ByteBuffer bytes) {
+        this(bytes, 0, bytes.limit());
+    }
+
+    private AsciiCharSequence(ByteBuffer bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (this.bytes.get(this.offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new AsciiCharSequence(this.bytes, this.offset + start, end - start);
+    }
+
+    /// {@return the characters in `[start, end)` as a string, without an intermediate view}
+    String text(int start, int end) {
+        byte[] copy = new byte[end - start];
+        this.bytes.get(this.offset + start, copy);
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+
+    /// {@return the index of the first character in `[from, to)` that is one of the given ones,
+    /// or `to` if there is none}
+    /// Eight bytes are compared at once, the characters must be ASCII.
+    int indexOfAny(int from, int to, char a, char b, char c, char d) {
+        long patternA = a * LOWEST_BYTES;
+        long patternB = b * LOWEST_BYTES;
+        long patternC = c * LOWEST_BYTES;
+        long patternD = d * LOWEST_BYTES;
+        boolean bigEndian = this.bytes.order() == ByteOrder.BIG_ENDIAN;
+        int i = from;
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long word = this.bytes.getLong(this.offset + i);
+            long found = zeroBytes(word ^ patternA) | zeroBytes(word ^ patternB)
+                | zeroBytes(word ^ patternC) | zeroBytes(word ^ patternD);
+            if (found != 0) {
+                int skipped = bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found);
+                return i + skipped / Byte.SIZE;
+            }
+        }
+        for (; i < to; i++) {
+            char ch = charAt(i);
+            if (ch == a || ch == b || ch == c || ch == d) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /// {@return a word with the high bit set in exactly the bytes of `word` that are zero}
+    private static long zeroBytes(long word) {
+        long low = (word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+        return ~(low | word | LOW_SEVEN_BITS);
+    }
+
+    @Override
+    public String toString() {
+        return text(0, this.length);
+    }
+}
@@ -2,7 +2,14 @@ package edu.kit.kastel.vads.compiler.lexer;
 
 import edu.kit.kastel.vads.compiler.Span;
 
-public record Identifier(String value, Span span) implements Token {
+/// An identifier token.
+/// `symbol` is its id in the [SymbolTable] of the lexer, or `-1` if it wasn't interned.
+public record Identifier(String value, int symbol, Span span) implements Token {
+
+    public Identifier(String value, Span span) {
+        this(value, -1, span);
+    }
+
     @Override
     public String asString() {
         return value();
@@ -0,0 +1,216 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import edu.kit.kastel.vads.compiler.Position;
+import edu.kit.kastel.vads.compiler.Span;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/// Keeps the tokens of a source text up to date while the text is edited.
+/// An edit is re-lexed from the last clean token start before it, until the new tokens line up
+/// with the old ones again. Tokens after that are kept, only their spans are updated if the edit
+/// moved them to another line or column. The [Damage] tells such moved tokens apart from changed ones.
+public final class IncrementalLexer {
+    private final SymbolTable symbols = new SymbolTable();
+    private final List<Token> tokens = new ArrayList<>();
+    private final StringBuilder source;
+    // the text start of each token
+    private int[] starts = new int[0];
+    // the tokens lexed for the current edit
+    private Token[] freshTokens = new Token[0];
+    private int[] freshStarts = new int[0];
+    private int freshCount;
+
+    /// Describes which tokens an edit replaced.
+    /// The old tokens `[from, oldEnd)` were replaced by the new tokens `[from, newEnd)`.
+    /// All other tokens are the same objects as before the edit.
+    /// The new tokens `[movedFrom, newEnd)` are the last old ones of the damage, which were only moved by `move`.
+    public record Damage(int from, int oldEnd, int newEnd, int movedFrom, Move move) {
+    }
+
+    /// Moves positions after an edit by `lineDelta` lines, and the ones on `line` by `columnDelta` columns.
+    public record Move(int line, int lineDelta, int columnDelta) {
+        public static final Move NONE = new Move(0, 0, 0);
+
+        public Position apply(Position position) {
+            int column = position.column() + (position.line() == line() ? columnDelta() : 0);
+            return new Position.SimplePosition(position.line() + lineDelta(), column);
+        }
+
+        /// {@return the moved span, which is packed again if it is a packed one}
+        public Span apply(Span span) {
+            if (span instanceof Span.PackedSpan packed) {
+                int column = packed.column() + (packed.line() == line() ? columnDelta() : 0);
+                return Span.singleLine(packed.line() + lineDelta(), column, packed.length());
+            }
+            return new Span.SimpleSpan(apply(span.start()), apply(span.end()));
+        }
+    }
+
+    public IncrementalLexer(String source) {
+        this.source = new StringBuilder(source);
+        relex(0, new Lexer(this.source, 0, source.length(), 0, 0, this.symbols), Integer.MAX_VALUE, 0, 0);
+    }
+
+    /// {@return the current source text}
+    /// The returned sequence is a view that changes with later edits.
+    public CharSequence source() {
+        return this.source;
+    }
+
+    /// {@return an unmodifiable view of the current tokens}
+    public List<Token> tokens() {
+        return Collections.unmodifiableList(this.tokens);
+    }
+
+    /// {@return the table the identifiers of all tokens are interned in}
+    public SymbolTable symbols() {
+        return this.symbols;
+    }
+
+    /// Replaces `removed` characters at `offset` by `inserted` and updates the tokens.
+    /// {@return the tokens replaced by the edit}
+    public Damage edit(int offset, int removed, String inserted) {
+        if (offset < 0 || removed < 0 || offset + removed > this.source.length()) {
+            throw new IndexOutOfBoundsException("edit [" + offset + ", " + (offset + removed) + ") out of bounds");
+        }
+        this.source.replace(offset, offset + removed, inserted);
+        // each token start is a clean lexer state, but the last one before the edit may reach into it
+        int from = Arrays.binarySearch(this.starts, 0, this.tokens.size(), offset);
+        from = from < 0 ? -from - 2 : from - 1;
+        // an unterminated comment is reported at the end of the input, its span says nothing about its start
+        while (from >= 0 && this.tokens.get(from) instanceof ErrorToken) {
+            from--;
+        }
+        Lexer lexer;
+        if (from < 0) {
+            from = 0;
+            lexer = new Lexer(this.source, 0, this.source.length(), 0, 0, this.symbols);
+        } else {
+            Position position = this.tokens.get(from).span().start();
+            int start = this.starts[from];
+            lexer = new Lexer(
+                this.source, start, this.source.length(), position.line(), start - position.column(), this.symbols
+            );
+        }
+        return relex(from, lexer, offset + inserted.length(), offset + removed, inserted.length() - removed);
+    }
+
+    /// Lexes new tokens from index `from` on until one starting at or after `unchangedFrom` lines up
+    /// with an old token starting at or after `oldUnchangedFrom`, i.e. `shift` characters earlier.
+    private Damage relex(int from, Lexer lexer, int unchangedFrom, int oldUnchangedFrom, int shift) {
+        this.freshCount = 0;
+        int oldSize = this.tokens.size();
+        int oldEnd = oldSize;
+        int old = from;
+        // the fresh and old indices of the first token that was only moved
+        int moved = -1;
+        int oldMoved = oldSize;
+        Move move = Move.NONE;
+        Optional<Token> next;
+        while ((next = lexer.nextToken()).isPresent()) {
+            int textStart = lexer.textStart();
+            if (textStart >= unchangedFrom) {
+                int oldStart = textStart - shift;
+                while (old < oldSize && this.starts[old] < oldStart) {
+                    old++;
+                }
+                if (old < oldSize && this.starts[old] == oldStart && oldStart >= oldUnchangedFrom) {
+                    Position original = this.tokens.get(old).span().start();
+                    Position relexed = next.get().span().start();
+                    move = new Move(
+                        original.line(), relexed.line() - original.line(), relexed.column() - original.column()
+                    );
+                    moved = this.freshCount;
+                    oldMoved = old;
+                    oldEnd = respan(old, move, shift);
+                    break;
+                }
+            }
+            addFresh(next.get(), textStart);
+        }
+        int newEnd = from + this.freshCount;
+        // the token before the edit is lexed again, but usually comes out the same
+        int unchanged = 0;
+        int limit = moved < 0 ? Math.min(oldEnd - from, this.freshCount) : Math.min(oldMoved - from, moved);
+        while (unchanged < limit && this.freshStarts[unchanged] == this.starts[from + unchanged]
+            && this.freshTokens[unchanged].equals(this.tokens.get(from + unchanged))) {
+            this.freshTokens[unchanged] = this.tokens.get(from + unchanged);
+            unchanged++;
+        }
+        splice(from, oldEnd, shift);
+        return new Damage(from + unchanged, oldEnd, newEnd, moved < 0 ? newEnd : from + moved, move);
+    }
+
+    /// Copies the old tokens from `resync` on with updated spans, as long as the edit moved them.
+    /// {@return the index of the first old token that can be kept as is}
+    private int respan(int resync, Move move, int shift) {
+        int old = resync;
+        for (; old < this.tokens.size(); old++) {
+            Token token = this.tokens.get(old);
+            Span span = token.span();
+            // only tokens on the line the edit ended on change their column
+            boolean sameLine = span.start().line() == move.line();
+            if (move.lineDelta() == 0 && (!sameLine || move.columnDelta() == 0)) {
+                break;
+            }
+            int column = span.start().column() + (sameLine ? move.columnDelta() : 0);
+            int length = span.end().column() - span.start().column();
+            Span moved = Span.singleLine(span.start().line() + move.lineDelta(), column, length);
+            addFresh(withSpan(token, moved), this.starts[old] + shift);
+        }
+        return old;
+    }
+
+    private void addFresh(Token token, int start) {
+        if (this.freshCount == this.freshStarts.length) {
+            this.freshStarts = Arrays.copyOf(this.freshStarts, Math.max(16, this.freshCount * 2));
+            this.freshTokens = Arrays.copyOf(this.freshTokens, this.freshStarts.length);
+        }
+        this.freshTokens[this.freshCount] = token;
+        this.freshStarts[this.freshCount] = start;
+        this.freshCount++;
+    }
+
+    /// Replaces the old tokens `[from, oldEnd)` by the fresh ones and moves the starts of the following ones.
+    private void splice(int from, int oldEnd, int shift) {
+        int oldSize = this.tokens.size();
+        int newSize = oldSize - (oldEnd - from) + this.freshCount;
+        if (newSize > this.starts.length) {
+            int capacity = Math.max(newSize, this.starts.length + (this.starts.length >> 1));
+            this.starts = Arrays.copyOf(this.starts, capacity);
+        }
+        int keptFrom = from + this.freshCount;
+        System.arraycopy(this.starts, oldEnd, this.starts, keptFrom, oldSize - oldEnd);
+        if (shift != 0) {
+            for (int i = keptFrom; i < newSize; i++) {
+                this.starts[i] += shift;
+            }
+        }
+        System.arraycopy(this.freshStarts, 0, this.starts, from, this.freshCount);
+        if (oldEnd - from == this.freshCount) {
+            for (int i = 0; i < this.freshCount; i++) {
+                this.tokens.set(from + i, this.freshTokens[i]);
+            }
+        } else {
+            List<Token> replaced = this.tokens.subList(from, oldEnd);
+            replaced.clear();
+            replaced.addAll(Arrays.asList(this.freshTokens).subList(0, this.freshCount));
+        }
+        Arrays.fill(this.freshTokens, 0, this.freshCount, null);
+    }
+
+    private static Token withSpan(Token token, Span span) {
+        return switch (token) {
+            case ErrorToken error -> new ErrorToken(error.value(), span);
+            case Identifier identifier -> new Identifier(identifier.value(), identifier.symbol(), span);
+            case Keyword keyword -> new Keyword(keyword.type(), span);
+            case NumberLiteral literal -> new NumberLiteral(literal.value(), literal.base(), literal.parsedValue(), span);
+            case Operator operator -> new Operator(operator.type(), span);
+            case Separator separator -> new Separator(separator.type(), span);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// Recognizes keywords directly in the source, without copying the candidate out first.
+/// Keywords are bucketed by their length and their first character, so a lookup only
+/// compares against the (usually single) keyword sharing both.
+final class KeywordMatcher {
+    private static final int FIRST_CHAR_RANGE = 128;
+    private static final KeywordType[][] BUCKETS;
+
+    static {
+        int maxLength = 0;
+        for (KeywordType type : KeywordType.values()) {
+            maxLength = Math.max(maxLength, type.keyword().length());
+        }
+        List<List<KeywordType>> buckets = new ArrayList<>();
+        for (int i = 0; i < (maxLength + 1) * FIRST_CHAR_RANGE; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (KeywordType type : KeywordType.values()) {
+            String keyword = type.keyword();
+            buckets.get(index(keyword.length(), keyword.charAt(0))).add(type);
+        }
+        BUCKETS = new KeywordType[buckets.size()][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BUCKETS[i] = buckets.get(i).toArray(KeywordType[]::new);
+        }
+    }
+
+    private KeywordMatcher() {
+
+    }
+
+    /// {@return the keyword spelled by `source[start, start + length)`, or `null` if it is not a keyword}
+    static @Nullable KeywordType match(CharSequence source, int start, int length) {
+        char first = source.charAt(start);
+        if (first >= FIRST_CHAR_RANGE) {
+            return null;
+        }
+        int index = index(length, first);
+        if (index >= BUCKETS.length) {
+            return null;
+        }
+        for (KeywordType candidate : BUCKETS[index]) {
+            if (matches(candidate.keyword(), source, start)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String keyword, CharSequence source, int start) {
+        // the first character is already known to match
+        for (int i = 1; i < keyword.length(); i++) {
+            if (keyword.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(int length, char first) {
+        return length * FIRST_CHAR_RANGE + first;
+    }
+}
@@ -1,36 +1,93 @@
 package edu.kit.kastel.vads.compiler.lexer;
 
-import edu.kit.kastel.vads.compiler.Position;
 import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
 import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
-import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 
 public class Lexer {
-    private final String source;
+    // the character by character scan of comments, kept to cross-check the fast path
+    private static final boolean SCALAR_COMMENTS = Boolean.getBoolean("lexer.scalarComments");
+
+    private final CharSequence source;
+    private final int end;
+    private final SymbolTable symbols;
     private int pos;
     private int lineStart;
     private int line;
 
-    private Lexer(String source) {
+    // the shape of the most recently scanned token, see scan()
+    private TokenKind kind = TokenKind.ERROR;
+    private int subtype;
+    private int textStart;
+    private int textEnd;
+    private int spanLine;
+    private int spanColumn;
+    private int spanLength;
+
+    private Lexer(CharSequence source) {
+        this(source, 0, source.length(), 0, 0, new SymbolTable());
+    }
+
+    /// Creates a lexer for `source[start, end)` only, e.g. for one chunk of a [ParallelLexer].
+    /// `start` must not be inside a token or comment, `line` and `lineStart` describe the line it is on.
+    Lexer(CharSequence source, int start, int end, int line, int lineStart, SymbolTable symbols) {
         this.source = source;
+        this.symbols = symbols;
+        this.end = end;
+        this.pos = start;
+        this.line = line;
+        this.lineStart = lineStart;
     }
 
     public static Lexer forString(String source) {
         return new Lexer(source);
     }
 
-    public Optional<Token> nextToken() {
-        ErrorToken error = skipWhitespace();
-        if (error != null) {
-            return Optional.of(error);
+    public static Lexer forCharSequence(CharSequence source) {
+        return new Lexer(source);
+    }
+
+    /// Lexes the given file directly from a read-only memory mapping.
+    /// The input is expected to be ASCII, no decoded copy of it is created.
+    public static Lexer forFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("input file " + path + " is too large");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new Lexer(new AsciiCharSequence(buffer));
         }
-        if (this.pos >= this.source.length()) {
+    }
+
+    public Optional<Token> nextToken() {
+        if (!scan()) {
             return Optional.empty();
         }
-        Token t = switch (peek()) {
+        Span span = Span.singleLine(this.spanLine, this.spanColumn, this.spanLength);
+        return Optional.of(TokenFactory.create(
+            this.kind, this.subtype, this.symbols, this.source, this.textStart, this.textEnd, span
+        ));
+    }
+
+    /// Scans the next token and only records its shape, without creating a [Token] object.
+    /// The shape can be read through the accessors below until the next call.
+    /// {@return false if the end of the input is reached}
+    boolean scan() {
+        if (skipWhitespace()) {
+            return true;
+        }
+        if (this.pos >= this.end) {
+            return false;
+        }
+        switch (peek()) {
             case '(' -> separator(SeparatorType.PAREN_OPEN);
             case ')' -> separator(SeparatorType.PAREN_CLOSE);
             case '{' -> separator(SeparatorType.BRACE_OPEN);
@@ -41,22 +98,24 @@ public class Lexer {
             case '*' -> singleOrAssign(OperatorType.MUL, OperatorType.ASSIGN_MUL);
             case '/' -> singleOrAssign(OperatorType.DIV, OperatorType.ASSIGN_DIV);
             case '%' -> singleOrAssign(OperatorType.MOD, OperatorType.ASSIGN_MOD);
-            case '=' -> new Operator(OperatorType.ASSIGN, buildSpan(1));
+            case '=' -> record(TokenKind.OPERATOR, OperatorType.ASSIGN.ordinal(), 1);
             default -> {
                 if (isIdentifierChar(peek())) {
                     if (isNumeric(peek())) {
-                        yield lexNumber();
+                        lexNumber();
+                    } else {
+                        lexIdentifierOrKeyword();
                     }
-                    yield lexIdentifierOrKeyword();
+                } else {
+                    record(TokenKind.ERROR, 0, 1);
                 }
-                yield new ErrorToken(String.valueOf(peek()), buildSpan(1));
             }
-        };
-
-        return Optional.of(t);
+        }
+        return true;
     }
 
-    private @Nullable ErrorToken skipWhitespace() {
+    /// {@return whether an error for an unterminated comment was recorded}
+    private boolean skipWhitespace() {
         enum CommentType {
             SINGLE_LINE,
             MULTI_LINE
@@ -65,6 +124,12 @@ public class Lexer {
         int multiLineCommentDepth = 0;
         int commentStart = -1;
         while (hasMore(0)) {
+            if (currentCommentType != null && !SCALAR_COMMENTS) {
+                skipCommentText(currentCommentType == CommentType.SINGLE_LINE);
+                if (!hasMore(0)) {
+                    break;
+                }
+            }
             switch (peek()) {
                 case ' ', '\t' -> this.pos++;
                 case '\n', '\r' -> {
@@ -90,7 +155,7 @@ public class Lexer {
                             this.pos++;
                             continue;
                         } else {
-                            return null;
+                            return false;
                         }
                         commentStart = this.pos;
                         this.pos += 2;
@@ -101,7 +166,7 @@ public class Lexer {
                         this.pos++;
                         continue;
                     }
-                    return null;
+                    return false;
                 }
                 default -> {
                     if (currentCommentType == CommentType.MULTI_LINE) {
@@ -117,36 +182,55 @@ public class Lexer {
                         this.pos++;
                         continue;
                     }
-                    return null;
+                    return false;
                 }
             }
         }
         if (!hasMore(0) && currentCommentType == CommentType.MULTI_LINE) {
-            return new ErrorToken(this.source.substring(commentStart), buildSpan(0));
+            // the error covers the comment text, but is reported at the end of the input
+            record(TokenKind.ERROR, TokenFactory.UNTERMINATED_COMMENT, 0);
+            this.textStart = commentStart;
+            return true;
+        }
+        return false;
+    }
+
+    /// Moves to the next character that may end or nest the current comment, or start a new line.
+    /// Inside a single line comment, only line breaks are relevant.
+    private void skipCommentText(boolean singleLine) {
+        if (this.source instanceof AsciiCharSequence ascii) {
+            this.pos = singleLine
+                ? ascii.indexOfAny(this.pos, this.end, '\n', '\r', '\n', '\r')
+                : ascii.indexOfAny(this.pos, this.end, '\n', '\r', '/', '*');
+            return;
+        }
+        while (this.pos < this.end) {
+            char c = this.source.charAt(this.pos);
+            if (c == '\n' || c == '\r' || !singleLine && (c == '/' || c == '*')) {
+                return;
+            }
+            this.pos++;
         }
-        return null;
     }
 
-    private Separator separator(SeparatorType parenOpen) {
-        return new Separator(parenOpen, buildSpan(1));
+    private void separator(SeparatorType type) {
+        record(TokenKind.SEPARATOR, type.ordinal(), 1);
     }
 
-    private Token lexIdentifierOrKeyword() {
+    private void lexIdentifierOrKeyword() {
         int off = 1;
         while (hasMore(off) && isIdentifierChar(peek(off))) {
             off++;
         }
-        String id = this.source.substring(this.pos, this.pos + off);
-        // This is a naive solution. Using a better data structure (hashmap, trie) likely performs better.
-        for (KeywordType value : KeywordType.values()) {
-            if (value.keyword().equals(id)) {
-                return new Keyword(value, buildSpan(off));
-            }
+        KeywordType keyword = KeywordMatcher.match(this.source, this.pos, off);
+        if (keyword != null) {
+            record(TokenKind.KEYWORD, keyword.ordinal(), off);
+        } else {
+            record(TokenKind.IDENTIFIER, this.symbols.intern(this.source, this.pos, this.pos + off), off);
         }
-        return new Identifier(id, buildSpan(off));
     }
 
-    private Token lexNumber() {
+    private void lexNumber() {
         if (isHexPrefix()) {
             int off = 2;
             while (hasMore(off) && isHex(peek(off))) {
@@ -154,9 +238,11 @@ public class Lexer {
             }
             if (off == 2) {
                 // 0x without any further hex digits
-                return new ErrorToken(this.source.substring(this.pos, this.pos + off), buildSpan(2));
+                record(TokenKind.ERROR, 0, 2);
+                return;
             }
-            return new NumberLiteral(this.source.substring(this.pos, this.pos + off), 16, buildSpan(off));
+            record(TokenKind.NUMBER_LITERAL, 16, off);
+            return;
         }
         int off = 1;
         while (hasMore(off) && isNumeric(peek(off))) {
@@ -164,9 +250,10 @@ public class Lexer {
         }
         if (peek() == '0' && off > 1) {
             // leading zero is not allowed
-            return new ErrorToken(this.source.substring(this.pos, this.pos + off), buildSpan(off));
+            record(TokenKind.ERROR, 0, off);
+            return;
         }
-        return new NumberLiteral(this.source.substring(this.pos, this.pos + off), 10, buildSpan(off));
+        record(TokenKind.NUMBER_LITERAL, 10, off);
     }
 
     private boolean isHexPrefix() {
@@ -188,19 +275,24 @@ public class Lexer {
         return isNumeric(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
     }
 
-    private Token singleOrAssign(OperatorType single, OperatorType assign) {
+    private void singleOrAssign(OperatorType single, OperatorType assign) {
         if (hasMore(1) && peek(1) == '=') {
-            return new Operator(assign, buildSpan(2));
+            record(TokenKind.OPERATOR, assign.ordinal(), 2);
+        } else {
+            record(TokenKind.OPERATOR, single.ordinal(), 1);
         }
-        return new Operator(single, buildSpan(1));
     }
 
-    private Span buildSpan(int proceed) {
-        int start = this.pos;
+    /// Records a token of `proceed` characters at the current position and moves past it.
+    private void record(TokenKind kind, int subtype, int proceed) {
+        this.kind = kind;
+        this.subtype = subtype;
+        this.textStart = this.pos;
+        this.textEnd = this.pos + proceed;
+        this.spanLine = this.line;
+        this.spanColumn = this.pos - this.lineStart;
+        this.spanLength = proceed;
         this.pos += proceed;
-        Position.SimplePosition s = new Position.SimplePosition(this.line, start - this.lineStart);
-        Position.SimplePosition e = new Position.SimplePosition(this.line, start - this.lineStart + proceed);
-        return new Span.SimpleSpan(s, e);
     }
 
     private char peek() {
@@ -208,11 +300,49 @@ public class Lexer {
     }
 
     private boolean hasMore(int offset) {
-        return this.pos + offset < this.source.length();
+        return this.pos + offset < this.end;
     }
 
     private char peek(int offset) {
         return this.source.charAt(this.pos + offset);
     }
 
+    /// {@return the table the identifiers of this lexer are interned in}
+    public SymbolTable symbols() {
+        return this.symbols;
+    }
+
+    CharSequence source() {
+        return this.source;
+    }
+
+    /// {@return the number of characters not lexed yet}
+    int remaining() {
+        return this.end - this.pos;
+    }
+
+    TokenKind kind() {
+        return this.kind;
+    }
+
+    int subtype() {
+        return this.subtype;
+    }
+
+    int textStart() {
+        return this.textStart;
+    }
+
+    int textEnd() {
+        return this.textEnd;
+    }
+
+    int spanLine() {
+        return this.spanLine;
+    }
+
+    int spanColumn() {
+        return this.spanColumn;
+    }
+
 }
@@ -2,9 +2,54 @@ package edu.kit.kastel.vads.compiler.lexer;
 
 import edu.kit.kastel.vads.compiler.Span;
 
-public record NumberLiteral(String value, int base, Span span) implements Token {
+/// `parsedValue` is the value of the literal, see [#parse(CharSequence, int, int, int)].
+public record NumberLiteral(String value, int base, long parsedValue, Span span) implements Token {
+    /// The parsed value of a literal that is out of range or malformed.
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long MAX_DECIMAL = Integer.toUnsignedLong(Integer.MIN_VALUE);
+    private static final long MAX_HEX = 0xFFFF_FFFFL;
+
+    public NumberLiteral(String value, int base, Span span) {
+        this(value, base, parse(value, 0, value.length(), base), span);
+    }
+
     @Override
     public String asString() {
         return value();
     }
+
+    /// Parses the literal `text[start, end)` without creating a string for it.
+    /// Decimal literals are valid up to 2^31, the value of `-2147483648` is only written as a negation.
+    /// Hexadecimal literals start with `0x` and are valid if they fit in 32 bits, they are read as a signed `int`.
+    /// {@return the value of the literal or [#INVALID]}
+    public static long parse(CharSequence text, int start, int end, int base) {
+        return switch (base) {
+            case 10 -> parseDigits(text, start, end, 10, MAX_DECIMAL);
+            case 16 -> {
+                long value = parseDigits(text, start + 2, end, 16, MAX_HEX);
+                yield value == INVALID ? INVALID : (int) value;
+            }
+            default -> throw new IllegalArgumentException("unexpected base " + base);
+        };
+    }
+
+    private static long parseDigits(CharSequence text, int start, int end, int radix, long max) {
+        if (start >= end) {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(text.charAt(i), radix);
+            if (digit < 0) {
+                return INVALID;
+            }
+            // leading zeros keep the value at 0, so this never overflows
+            value = value * radix + digit;
+            if (value > max) {
+                return INVALID;
+            }
+        }
+        return value;
+    }
 }
@@ -0,0 +1,102 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/// Lexes large inputs by splitting them into chunks that are lexed concurrently.
+/// Chunks end after a line break outside of comments, so no token or comment spans two chunks.
+/// The result is the same as lexing the whole input with a single [Lexer].
+public final class ParallelLexer {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelLexer() {
+
+    }
+
+    private record Chunk(int start, int end, int line) {
+    }
+
+    /// {@return a buffer holding all tokens of the given, not yet used lexer}
+    public static TokenBuffer lex(Lexer lexer, ForkJoinPool pool) {
+        int chunkSize = lexer.remaining() / (pool.getParallelism() * CHUNKS_PER_THREAD);
+        return lex(lexer, pool, Math.max(MIN_CHUNK_SIZE, chunkSize));
+    }
+
+    static TokenBuffer lex(Lexer lexer, ForkJoinPool pool, int chunkSize) {
+        CharSequence source = lexer.source();
+        if (lexer.remaining() != source.length()) {
+            throw new IllegalArgumentException("lexer was already used");
+        }
+        List<Chunk> chunks = split(source, chunkSize);
+        if (chunks.size() == 1) {
+            return TokenBuffer.lex(lexer);
+        }
+        List<ForkJoinTask<TokenBuffer>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            // the first chunk interns into the table of the given lexer, the others are merged into it later
+            SymbolTable symbols = chunk.start() == 0 ? lexer.symbols() : new SymbolTable();
+            tasks.add(pool.submit(() -> TokenBuffer.lex(
+                new Lexer(source, chunk.start(), chunk.end(), chunk.line(), chunk.start(), symbols)
+            )));
+        }
+        List<TokenBuffer> parts = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<TokenBuffer> task : tasks) {
+            parts.add(task.join());
+        }
+        return TokenBuffer.concat(source, parts);
+    }
+
+    /// Splits the source into chunks of at least `chunkSize` characters.
+    /// This follows the comment handling of [Lexer] closely, as every line break counts as a new line
+    /// and comments nest, but it doesn't need to recognize any tokens.
+    private static List<Chunk> split(CharSequence source, int chunkSize) {
+        List<Chunk> chunks = new ArrayList<>();
+        int length = source.length();
+        int chunkStart = 0;
+        int chunkLine = 0;
+        int line = 0;
+        int commentDepth = 0;
+        boolean lineComment = false;
+        int pos = 0;
+        while (pos < length) {
+            char c = source.charAt(pos);
+            if (c == '\n' || c == '\r') {
+                pos++;
+                line++;
+                lineComment = false;
+                if (commentDepth == 0 && pos - chunkStart >= chunkSize) {
+                    chunks.add(new Chunk(chunkStart, pos, chunkLine));
+                    chunkStart = pos;
+                    chunkLine = line;
+                }
+            } else if (lineComment || pos + 1 == length) {
+                pos++;
+            } else if (commentDepth > 0) {
+                char next = source.charAt(pos + 1);
+                if (c == '/' && next == '*') {
+                    commentDepth++;
+                    pos += 2;
+                } else if (c == '*' && next == '/') {
+                    commentDepth--;
+                    pos += 2;
+                } else {
+                    pos++;
+                }
+            } else if (c == '/' && source.charAt(pos + 1) == '/') {
+                lineComment = true;
+                pos += 2;
+            } else if (c == '/' && source.charAt(pos + 1) == '*') {
+                commentDepth = 1;
+                pos += 2;
+            } else {
+                // outside of comments, a '/' can only be the first character of a token
+                pos++;
+            }
+        }
+        chunks.add(new Chunk(chunkStart, length, chunkLine));
+        return chunks;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import java.util.Arrays;
+
+/// Interns identifiers and assigns each distinct one a dense id, starting at `0`.
+/// Lookups compare directly against the source, so an identifier seen before doesn't
+/// create a new string.
+public final class SymbolTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // open addressing, a slot holds id + 1 or 0 if it is free
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY / 2];
+    private int[] hashes = new int[INITIAL_CAPACITY / 2];
+    private int size;
+
+    /// {@return the id of the identifier `source[start, end)`}
+    int intern(CharSequence source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int mask = this.slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = this.slots[slot] - 1;
+            if (id < 0) {
+                return add(slot, hash, TokenFactory.text(source, start, end));
+            }
+            if (this.hashes[id] == hash && matches(this.names[id], source, start, end)) {
+                return id;
+            }
+        }
+    }
+
+    /// {@return the id of the given identifier}
+    public int intern(String name) {
+        return intern(name, 0, name.length());
+    }
+
+    /// {@return the identifier with the given id}
+    public String name(int id) {
+        return this.names[id];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private int add(int slot, int hash, String name) {
+        int id = this.size++;
+        if (id == this.names.length) {
+            this.names = Arrays.copyOf(this.names, id * 2);
+            this.hashes = Arrays.copyOf(this.hashes, id * 2);
+        }
+        this.names[id] = name;
+        this.hashes[id] = hash;
+        this.slots[slot] = id + 1;
+        if (this.size * 2 > this.slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        this.slots = new int[this.slots.length * 2];
+        int mask = this.slots.length - 1;
+        for (int id = 0; id < this.size; id++) {
+            int slot = mix(this.hashes[id]) & mask;
+            while (this.slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.slots[slot] = id + 1;
+        }
+    }
+
+    private static boolean matches(String name, CharSequence source, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        // spread the bits, identifiers often only differ in their last characters
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
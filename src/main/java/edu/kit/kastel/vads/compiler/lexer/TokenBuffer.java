@@ -0,0 +1,159 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/// Stores all tokens of an input in parallel `int` arrays instead of one object per token.
+/// Token texts are not copied, they are read from the source when a [Token] is requested.
+public final class TokenBuffer {
+    private static final TokenKind[] KINDS = TokenKind.values();
+    private static final int MIN_CAPACITY = 16;
+    // typical sources have a token every few characters, guessing from the input size avoids most regrowth
+    private static final int CHARS_PER_TOKEN_ESTIMATE = 4;
+
+    private final CharSequence source;
+    private final SymbolTable symbols;
+    private int[] kinds;
+    private int[] subtypes;
+    private int[] starts;
+    private int[] lengths;
+    private int[] lines;
+    // an unterminated comment is reported at its end, so the column can't be derived from the start
+    private int[] columns;
+    private int size;
+
+    private TokenBuffer(CharSequence source, SymbolTable symbols, int capacity) {
+        this.source = source;
+        this.symbols = symbols;
+        this.kinds = new int[capacity];
+        this.subtypes = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.lines = new int[capacity];
+        this.columns = new int[capacity];
+    }
+
+    /// {@return a buffer holding all remaining tokens of the lexer}
+    public static TokenBuffer lex(Lexer lexer) {
+        int capacity = Math.max(MIN_CAPACITY, lexer.remaining() / CHARS_PER_TOKEN_ESTIMATE);
+        TokenBuffer buffer = new TokenBuffer(lexer.source(), lexer.symbols(), capacity);
+        while (lexer.scan()) {
+            buffer.add(lexer);
+        }
+        return buffer;
+    }
+
+    /// {@return a buffer holding the tokens of all parts in order}
+    /// The parts must have been lexed from the same source. Their identifiers are interned
+    /// again in the symbol table of the first part.
+    static TokenBuffer concat(CharSequence source, List<TokenBuffer> parts) {
+        int total = 0;
+        for (TokenBuffer part : parts) {
+            total += part.size;
+        }
+        SymbolTable symbols = parts.getFirst().symbols;
+        TokenBuffer buffer = new TokenBuffer(source, symbols, total);
+        for (TokenBuffer part : parts) {
+            int at = buffer.size;
+            System.arraycopy(part.kinds, 0, buffer.kinds, at, part.size);
+            System.arraycopy(part.subtypes, 0, buffer.subtypes, at, part.size);
+            if (part.symbols != symbols) {
+                buffer.remapSymbols(at, part);
+            }
+            System.arraycopy(part.starts, 0, buffer.starts, at, part.size);
+            System.arraycopy(part.lengths, 0, buffer.lengths, at, part.size);
+            System.arraycopy(part.lines, 0, buffer.lines, at, part.size);
+            System.arraycopy(part.columns, 0, buffer.columns, at, part.size);
+            buffer.size += part.size;
+        }
+        return buffer;
+    }
+
+    private void remapSymbols(int at, TokenBuffer part) {
+        int[] remap = new int[part.symbols.size()];
+        for (int id = 0; id < remap.length; id++) {
+            remap[id] = this.symbols.intern(part.symbols.name(id));
+        }
+        for (int i = 0; i < part.size; i++) {
+            if (part.kinds[i] == TokenKind.IDENTIFIER.ordinal()) {
+                this.subtypes[at + i] = remap[part.subtypes[i]];
+            }
+        }
+    }
+
+    private void add(Lexer lexer) {
+        if (this.size == this.kinds.length) {
+            resize(this.size + (this.size >> 1));
+        }
+        int idx = this.size++;
+        this.kinds[idx] = lexer.kind().ordinal();
+        this.subtypes[idx] = lexer.subtype();
+        this.starts[idx] = lexer.textStart();
+        this.lengths[idx] = lexer.textEnd() - lexer.textStart();
+        this.lines[idx] = lexer.spanLine();
+        this.columns[idx] = lexer.spanColumn();
+    }
+
+    private void resize(int capacity) {
+        this.kinds = Arrays.copyOf(this.kinds, capacity);
+        this.subtypes = Arrays.copyOf(this.subtypes, capacity);
+        this.starts = Arrays.copyOf(this.starts, capacity);
+        this.lengths = Arrays.copyOf(this.lengths, capacity);
+        this.lines = Arrays.copyOf(this.lines, capacity);
+        this.columns = Arrays.copyOf(this.columns, capacity);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /// {@return the table the symbol ids of the identifiers refer to}
+    public SymbolTable symbols() {
+        return this.symbols;
+    }
+
+    public TokenKind kind(int idx) {
+        return KINDS[this.kinds[idx]];
+    }
+
+    public boolean isKeyword(int idx, KeywordType type) {
+        return kind(idx) == TokenKind.KEYWORD && this.subtypes[idx] == type.ordinal();
+    }
+
+    public boolean isOperator(int idx, OperatorType type) {
+        return kind(idx) == TokenKind.OPERATOR && this.subtypes[idx] == type.ordinal();
+    }
+
+    public boolean isSeparator(int idx, SeparatorType type) {
+        return kind(idx) == TokenKind.SEPARATOR && this.subtypes[idx] == type.ordinal();
+    }
+
+    /// {@return the type of the operator at the given index}
+    /// @throws IllegalStateException if the token is not an operator
+    public OperatorType operatorType(int idx) {
+        if (kind(idx) != TokenKind.OPERATOR) {
+            throw new IllegalStateException("token " + idx + " is not an operator");
+        }
+        return TokenFactory.operatorType(this.subtypes[idx]);
+    }
+
+    public Span span(int idx) {
+        int spanLength = kind(idx) == TokenKind.ERROR && this.subtypes[idx] == TokenFactory.UNTERMINATED_COMMENT
+            ? 0
+            : this.lengths[idx];
+        return Span.singleLine(this.lines[idx], this.columns[idx], spanLength);
+    }
+
+    /// {@return a token object for the token at the given index}
+    /// A new object is created on every call.
+    public Token token(int idx) {
+        int start = this.starts[idx];
+        return TokenFactory.create(
+            kind(idx), this.subtypes[idx], this.symbols, this.source, start, start + this.lengths[idx], span(idx)
+        );
+    }
+}
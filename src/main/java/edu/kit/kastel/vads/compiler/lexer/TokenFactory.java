@@ -0,0 +1,57 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
+
+/// Creates [Token]s from the primitive shape recorded by the [Lexer].
+/// The subtype is the ordinal of the keyword, operator or separator type,
+/// the base of a number literal and the symbol id of an identifier.
+final class TokenFactory {
+    /// The subtype of an [ErrorToken] for an unterminated comment.
+    /// Its text is the comment, but its span is empty and located at the end of the input.
+    static final int UNTERMINATED_COMMENT = 1;
+
+    private static final KeywordType[] KEYWORD_TYPES = KeywordType.values();
+    private static final OperatorType[] OPERATOR_TYPES = OperatorType.values();
+    private static final SeparatorType[] SEPARATOR_TYPES = SeparatorType.values();
+
+    private TokenFactory() {
+
+    }
+
+    static Token create(
+        TokenKind kind, int subtype, SymbolTable symbols, CharSequence source, int textStart, int textEnd, Span span
+    ) {
+        return switch (kind) {
+            case ERROR -> new ErrorToken(text(source, textStart, textEnd), span);
+            case IDENTIFIER -> new Identifier(symbols.name(subtype), subtype, span);
+            case KEYWORD -> new Keyword(keywordType(subtype), span);
+            case NUMBER_LITERAL -> {
+                long value = NumberLiteral.parse(source, textStart, textEnd, subtype);
+                yield new NumberLiteral(text(source, textStart, textEnd), subtype, value, span);
+            }
+            case OPERATOR -> new Operator(operatorType(subtype), span);
+            case SEPARATOR -> new Separator(separatorType(subtype), span);
+        };
+    }
+
+    static KeywordType keywordType(int subtype) {
+        return KEYWORD_TYPES[subtype];
+    }
+
+    static OperatorType operatorType(int subtype) {
+        return OPERATOR_TYPES[subtype];
+    }
+
+    static SeparatorType separatorType(int subtype) {
+        return SEPARATOR_TYPES[subtype];
+    }
+
+    static String text(CharSequence source, int start, int end) {
+        if (source instanceof AsciiCharSequence ascii) {
+            return ascii.text(start, end);
+        }
+        return source.subSequence(start, end).toString();
+    }
+}
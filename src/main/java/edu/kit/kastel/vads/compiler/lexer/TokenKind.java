@@ -0,0 +1,11 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+/// The kinds of [Token]s, for places that store tokens without creating objects for them.
+public enum TokenKind {
+    ERROR,
+    IDENTIFIER,
+    KEYWORD,
+    NUMBER_LITERAL,
+    OPERATOR,
+    SEPARATOR,
+}
@@ -0,0 +1,206 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.IncrementalLexer;
+import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.StatementTree;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/// Keeps the [ProgramTree] of a source text up to date while the text is edited.
+/// Only the statements of the function body that contain tokens changed by an edit are parsed again,
+/// all other statement trees are reused.
+/// As spans are absolute, an edit that adds or removes line breaks moves all tokens after it. The statements
+/// made of such tokens are not parsed again, their trees are copied with moved spans by [StatementMover].
+/// Edits to the function head lead to a full parse.
+public final class IncrementalFrontend {
+    // `int main ( ) {`
+    private static final int HEAD_TOKENS = 5;
+
+    private final IncrementalLexer lexer;
+    private @Nullable ProgramTree program;
+    // the index of the semicolon ending each statement of the body
+    private int[] statementEnds = new int[0];
+    private int statementCount;
+
+    public IncrementalFrontend(String source) {
+        this.lexer = new IncrementalLexer(source);
+    }
+
+    /// {@return the current source text, see [IncrementalLexer#source()]}
+    public CharSequence source() {
+        return this.lexer.source();
+    }
+
+    /// {@return the tree of the current source}
+    /// @throws ParseException if the current source is not a valid program
+    public ProgramTree program() {
+        ProgramTree current = this.program;
+        return current != null ? current : parseAll();
+    }
+
+    /// Replaces `removed` characters at `offset` by `inserted`.
+    /// {@return the tree of the edited source}
+    /// @throws ParseException if the edited source is not a valid program
+    public ProgramTree edit(int offset, int removed, String inserted) {
+        IncrementalLexer.Damage damage = this.lexer.edit(offset, removed, inserted);
+        ProgramTree previous = this.program;
+        if (previous == null) {
+            return parseAll();
+        }
+        ProgramTree updated = reparse(previous, damage);
+        return updated != null ? updated : parseAll();
+    }
+
+    private ProgramTree parseAll() {
+        this.program = null;
+        List<Token> tokens = this.lexer.tokens();
+        ProgramTree parsed = new Parser(new TokenSource(tokens)).parseProgram();
+        // as the parser accepted the tokens, each semicolon in the body ends exactly one statement
+        this.statementCount = 0;
+        for (int i = HEAD_TOKENS; i < tokens.size() - 1; i++) {
+            if (tokens.get(i).isSeparator(SeparatorType.SEMICOLON)) {
+                addStatementEnd(i);
+            }
+        }
+        this.program = parsed;
+        return parsed;
+    }
+
+    /// Parses the statements overlapping the changed tokens of the damage again, and moves the ones whose tokens
+    /// were only moved.
+    /// {@return the updated tree, or `null` if the edit can't be handled locally}
+    private @Nullable ProgramTree reparse(ProgramTree previous, IncrementalLexer.Damage damage) {
+        List<Token> tokens = this.lexer.tokens();
+        int shift = damage.newEnd() - damage.oldEnd();
+        if (damage.from() < HEAD_TOKENS || !tokens.getLast().isSeparator(SeparatorType.BRACE_CLOSE)) {
+            return null;
+        }
+        int first = firstStatementEndingAtOrAfter(damage.from());
+        int regionStart = first == 0 ? HEAD_TOKENS : this.statementEnds[first - 1] + 1;
+        // an edit of whitespace or comments only moves tokens, but a statement can only be moved as a whole
+        boolean changed = damage.from() < damage.movedFrom() || damage.from() < damage.movedFrom() - shift
+            || regionStart < damage.from();
+        int lastChanged = changed ? firstStatementEndingAtOrAfter(damage.movedFrom() - shift) : first - 1;
+        int last = firstStatementEndingAtOrAfter(damage.oldEnd());
+        int regionEnd;
+        if (!changed) {
+            regionEnd = regionStart;
+        } else if (lastChanged < this.statementCount) {
+            regionEnd = this.statementEnds[lastChanged] + shift + 1;
+        } else {
+            // without a statement after the changed tokens, the region extends to the closing brace
+            regionEnd = tokens.size() - 1;
+        }
+        if (regionStart > regionEnd) {
+            // the damage starts at the closing brace, there can't be a statement in it
+            return null;
+        }
+
+        List<StatementTree> parsed = new ArrayList<>();
+        int[] parsedEnds = new int[8];
+        int segmentStart = regionStart;
+        for (int i = regionStart; i < regionEnd; i++) {
+            if (!tokens.get(i).isSeparator(SeparatorType.SEMICOLON)) {
+                continue;
+            }
+            StatementTree statement = parseSegment(tokens, segmentStart, i);
+            if (statement == null) {
+                return null;
+            }
+            parsedEnds = addEnd(parsedEnds, parsed.size(), i);
+            parsed.add(statement);
+            segmentStart = i + 1;
+        }
+        if (segmentStart != regionEnd) {
+            return null;
+        }
+
+        FunctionTree function = previous.topLevelTrees().getFirst();
+        List<StatementTree> oldStatements = function.body().statements();
+        int keptFrom = Math.min(last + 1, this.statementCount);
+        // statements between the changed tokens and the end of the damage only moved, their trees are moved as well
+        for (int i = lastChanged + 1; i < keptFrom; i++) {
+            int start = i == 0 ? HEAD_TOKENS : this.statementEnds[i - 1] + (i > first ? shift : 0) + 1;
+            int end = this.statementEnds[i] + shift;
+            StatementTree statement = damage.movedFrom() == damage.newEnd()
+                ? oldStatements.get(i)
+                : StatementMover.move(oldStatements.get(i), damage.move());
+            if (statement == null) {
+                statement = parseSegment(tokens, start, end);
+                if (statement == null) {
+                    return null;
+                }
+            }
+            parsedEnds = addEnd(parsedEnds, parsed.size(), end);
+            parsed.add(statement);
+        }
+        List<StatementTree> statements = new ArrayList<>(first + parsed.size() + this.statementCount - keptFrom);
+        statements.addAll(oldStatements.subList(0, first));
+        statements.addAll(parsed);
+        statements.addAll(oldStatements.subList(keptFrom, this.statementCount));
+        spliceStatementEnds(first, keptFrom, parsedEnds, parsed.size(), shift);
+
+        // the closing brace may have been moved by the edit
+        Span bodySpan = tokens.get(HEAD_TOKENS - 1).span().merge(tokens.getLast().span());
+        BlockTree body = new BlockTree(statements, bodySpan);
+        ProgramTree updated = new ProgramTree(List.of(new FunctionTree(function.returnType(), function.name(), body)));
+        this.program = updated;
+        return updated;
+    }
+
+    /// {@return the statement made of the tokens `[start, end]`, or `null` if they aren't exactly one statement}
+    private static @Nullable StatementTree parseSegment(List<Token> tokens, int start, int end) {
+        TokenSource source = new TokenSource(tokens.subList(start, end + 1));
+        StatementTree statement;
+        try {
+            statement = new Parser(source).parseStatement();
+        } catch (ParseException _) {
+            // let the full parse report the error as it would without the edit history
+            return null;
+        }
+        return source.hasMore() ? null : statement;
+    }
+
+    private static int[] addEnd(int[] ends, int count, int end) {
+        int[] result = count == ends.length ? Arrays.copyOf(ends, count * 2) : ends;
+        result[count] = end;
+        return result;
+    }
+
+    private int firstStatementEndingAtOrAfter(int token) {
+        int found = Arrays.binarySearch(this.statementEnds, 0, this.statementCount, token);
+        return found < 0 ? -found - 1 : found;
+    }
+
+    /// Replaces the ends of the statements `[first, keptFrom)` and shifts the ones after.
+    private void spliceStatementEnds(int first, int keptFrom, int[] parsedEnds, int parsedCount, int shift) {
+        int newCount = this.statementCount - (keptFrom - first) + parsedCount;
+        if (newCount > this.statementEnds.length) {
+            this.statementEnds = Arrays.copyOf(this.statementEnds, Math.max(newCount, this.statementEnds.length * 2));
+        }
+        int movedFrom = first + parsedCount;
+        System.arraycopy(this.statementEnds, keptFrom, this.statementEnds, movedFrom, this.statementCount - keptFrom);
+        if (shift != 0) {
+            for (int i = movedFrom; i < newCount; i++) {
+                this.statementEnds[i] += shift;
+            }
+        }
+        System.arraycopy(parsedEnds, 0, this.statementEnds, first, parsedCount);
+        this.statementCount = newCount;
+    }
+
+    private void addStatementEnd(int token) {
+        if (this.statementCount == this.statementEnds.length) {
+            this.statementEnds = Arrays.copyOf(this.statementEnds, Math.max(16, this.statementCount * 2));
+        }
+        this.statementEnds[this.statementCount++] = token;
+    }
+}
@@ -1,7 +1,15 @@
 package edu.kit.kastel.vads.compiler.parser;
 
-public class ParseException extends RuntimeException {
+import edu.kit.kastel.vads.compiler.CompilerException;
+import edu.kit.kastel.vads.compiler.Span;
+import org.jspecify.annotations.Nullable;
+
+public class ParseException extends CompilerException {
     public ParseException(String message) {
-        super(message);
+        this(message, null);
+    }
+
+    public ParseException(String message, @Nullable Span span) {
+        super(message, span);
     }
 }
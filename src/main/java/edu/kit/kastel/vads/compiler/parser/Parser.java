@@ -10,178 +10,243 @@ import edu.kit.kastel.vads.compiler.lexer.Separator;
 import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
 import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.lexer.Token;
-import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
-import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
-import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
-import edu.kit.kastel.vads.compiler.parser.ast.DeclarationTree;
-import edu.kit.kastel.vads.compiler.parser.ast.ExpressionTree;
-import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
-import edu.kit.kastel.vads.compiler.parser.ast.IdentExpressionTree;
-import edu.kit.kastel.vads.compiler.parser.ast.LValueIdentTree;
-import edu.kit.kastel.vads.compiler.parser.ast.LValueTree;
-import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
-import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
-import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.AstArena;
+import edu.kit.kastel.vads.compiler.parser.ast.AstBuilder;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
-import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
 import edu.kit.kastel.vads.compiler.parser.ast.StatementTree;
-import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
 import edu.kit.kastel.vads.compiler.parser.type.BasicType;
+import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Parser {
-    private final TokenSource tokenSource;
+    private final TokenStream tokenSource;
 
-    public Parser(TokenSource tokenSource) {
+    public Parser(TokenStream tokenSource) {
         this.tokenSource = tokenSource;
     }
 
     public ProgramTree parseProgram() {
-        ProgramTree programTree = new ProgramTree(List.of(parseFunction()));
+        TreeBuilder trees = new TreeBuilder();
+        return (ProgramTree) trees.tree(parseProgram(trees));
+    }
+
+    /// Parses the program directly into an [AstArena], without creating a record per node.
+    public AstArena parseArena() {
+        AstArena.Builder arena = new AstArena.Builder();
+        parseProgram(arena);
+        return arena.build();
+    }
+
+    StatementTree parseStatement() {
+        TreeBuilder trees = new TreeBuilder();
+        return (StatementTree) trees.tree(parseStatement(trees));
+    }
+
+    private int parseProgram(AstBuilder ast) {
+        int function = parseFunction(ast);
         if (this.tokenSource.hasMore()) {
-            throw new ParseException("expected end of input but got " + this.tokenSource.peek());
+            Token token = this.tokenSource.peek();
+            throw new ParseException("expected end of input but got " + token, token.span());
         }
-        return programTree;
+        return ast.program(new int[] {function}, 1);
     }
 
-    private FunctionTree parseFunction() {
+    private int parseFunction(AstBuilder ast) {
         Keyword returnType = this.tokenSource.expectKeyword(KeywordType.INT);
-        Identifier identifier = this.tokenSource.expectIdentifier();
-        this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
-        this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
-        BlockTree body = parseBlock();
-        return new FunctionTree(
-            new TypeTree(BasicType.INT, returnType.span()),
-            name(identifier),
-            body
-        );
-    }
-
-    private BlockTree parseBlock() {
+        int type = ast.type(BasicType.INT, returnType.span());
+        int name = name(ast, this.tokenSource.expectIdentifier());
+        this.tokenSource.skipSeparator(SeparatorType.PAREN_OPEN);
+        this.tokenSource.skipSeparator(SeparatorType.PAREN_CLOSE);
+        int body = parseBlock(ast);
+        return ast.function(type, name, body);
+    }
+
+    private int parseBlock(AstBuilder ast) {
         Separator bodyOpen = this.tokenSource.expectSeparator(SeparatorType.BRACE_OPEN);
-        List<StatementTree> statements = new ArrayList<>();
-        while (!(this.tokenSource.peek() instanceof Separator sep && sep.type() == SeparatorType.BRACE_CLOSE)) {
-            statements.add(parseStatement());
+        int[] statements = new int[8];
+        int count = 0;
+        while (!this.tokenSource.peekIsSeparator(SeparatorType.BRACE_CLOSE)) {
+            if (count == statements.length) {
+                statements = Arrays.copyOf(statements, count * 2);
+            }
+            statements[count++] = parseStatement(ast);
         }
         Separator bodyClose = this.tokenSource.expectSeparator(SeparatorType.BRACE_CLOSE);
-        return new BlockTree(statements, bodyOpen.span().merge(bodyClose.span()));
+        return ast.block(statements, count, bodyOpen.span().merge(bodyClose.span()));
     }
 
-    private StatementTree parseStatement() {
-        StatementTree statement;
-        if (this.tokenSource.peek().isKeyword(KeywordType.INT)) {
-            statement = parseDeclaration();
-        } else if (this.tokenSource.peek().isKeyword(KeywordType.RETURN)) {
-            statement = parseReturn();
+    private int parseStatement(AstBuilder ast) {
+        int statement;
+        if (this.tokenSource.peekIsKeyword(KeywordType.INT)) {
+            statement = parseDeclaration(ast);
+        } else if (this.tokenSource.peekIsKeyword(KeywordType.RETURN)) {
+            statement = parseReturn(ast);
         } else {
-            statement = parseSimple();
+            statement = parseSimple(ast);
         }
-        this.tokenSource.expectSeparator(SeparatorType.SEMICOLON);
+        this.tokenSource.skipSeparator(SeparatorType.SEMICOLON);
         return statement;
     }
 
-    private StatementTree parseDeclaration() {
+    private int parseDeclaration(AstBuilder ast) {
         Keyword type = this.tokenSource.expectKeyword(KeywordType.INT);
-        Identifier ident = this.tokenSource.expectIdentifier();
-        ExpressionTree expr = null;
-        if (this.tokenSource.peek().isOperator(OperatorType.ASSIGN)) {
-            this.tokenSource.expectOperator(OperatorType.ASSIGN);
-            expr = parseExpression();
+        int typeNode = ast.type(BasicType.INT, type.span());
+        int name = name(ast, this.tokenSource.expectIdentifier());
+        int expr = AstBuilder.NONE;
+        if (this.tokenSource.peekIsOperator(OperatorType.ASSIGN)) {
+            this.tokenSource.skip();
+            expr = parseExpression(ast);
         }
-        return new DeclarationTree(new TypeTree(BasicType.INT, type.span()), name(ident), expr);
+        return ast.declaration(typeNode, name, expr);
     }
 
-    private StatementTree parseSimple() {
-        LValueTree lValue = parseLValue();
+    private int parseSimple(AstBuilder ast) {
+        int lValue = parseLValue(ast);
         Operator assignmentOperator = parseAssignmentOperator();
-        ExpressionTree expression = parseExpression();
-        return new AssignmentTree(lValue, assignmentOperator, expression);
+        int expression = parseExpression(ast);
+        return ast.assignment(lValue, assignmentOperator, expression);
     }
-
     private Operator parseAssignmentOperator() {
         if (this.tokenSource.peek() instanceof Operator op) {
             return switch (op.type()) {
                 case ASSIGN, ASSIGN_DIV, ASSIGN_MINUS, ASSIGN_MOD, ASSIGN_MUL, ASSIGN_PLUS -> {
-                    this.tokenSource.consume();
+                    this.tokenSource.skip();
                     yield op;
                 }
-                default -> throw new ParseException("expected assignment but got " + op.type());
+                default -> throw new ParseException("expected assignment but got " + op.type(), op.span());
             };
         }
-        throw new ParseException("expected assignment but got " + this.tokenSource.peek());
+        Token token = this.tokenSource.peek();
+        throw new ParseException("expected assignment but got " + token, token.span());
     }
 
-    private LValueTree parseLValue() {
-        if (this.tokenSource.peek().isSeparator(SeparatorType.PAREN_OPEN)) {
-            this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
-            LValueTree inner = parseLValue();
-            this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
-            return inner;
+    private int parseLValue(AstBuilder ast) {
+        int parens = 0;
+        while (this.tokenSource.peekIsSeparator(SeparatorType.PAREN_OPEN)) {
+            this.tokenSource.skip();
+            parens++;
+        }
+        int name = name(ast, this.tokenSource.expectIdentifier());
+        for (int i = 0; i < parens; i++) {
+            this.tokenSource.skipSeparator(SeparatorType.PAREN_CLOSE);
         }
-        Identifier identifier = this.tokenSource.expectIdentifier();
-        return new LValueIdentTree(name(identifier));
+        return ast.lValueIdent(name);
     }
 
-    private StatementTree parseReturn() {
+    private int parseReturn(AstBuilder ast) {
         Keyword ret = this.tokenSource.expectKeyword(KeywordType.RETURN);
-        ExpressionTree expression = parseExpression();
-        return new ReturnTree(expression, ret.span().start());
+        int expression = parseExpression(ast);
+        return ast.returnStatement(expression, ret.span().start());
     }
 
-    private ExpressionTree parseExpression() {
-        ExpressionTree lhs = parseTerm();
+    /// Parses an expression with explicit operand and operator stacks instead of one recursive call
+    /// per parenthesis or minus sign, so the nesting depth isn't limited by the Java stack.
+    /// The trees and errors are the same as for the grammar
+    /// ```
+    /// expression ::= term (('+' | '-') term)*
+    /// term       ::= factor (('*' | '/' | '%') factor)*
+    /// factor     ::= '(' expression ')' | '-' factor | identifier | number
+    /// ```
+    private int parseExpression(AstBuilder ast) {
+        List<Integer> operands = new ArrayList<>();
+        List<Pending> operators = new ArrayList<>();
         while (true) {
-            if (this.tokenSource.peek() instanceof Operator(var type, _)
-                && (type == OperatorType.PLUS || type == OperatorType.MINUS)) {
-                this.tokenSource.consume();
-                lhs = new BinaryOperationTree(lhs, parseTerm(), type);
-            } else {
-                return lhs;
+            operands.add(parseOperand(ast, operators));
+            while (true) {
+                reduceNegations(ast, operands, operators);
+                OperatorType type = this.tokenSource.peekOperator();
+                int precedence = precedence(type);
+                if (precedence > 0) {
+                    reduceBinaryOperations(ast, operands, operators, precedence);
+                    this.tokenSource.skip();
+                    operators.add(new Pending.Binary(type));
+                    break;
+                }
+                reduceBinaryOperations(ast, operands, operators, 0);
+                if (operators.isEmpty()) {
+                    return operands.getFirst();
+                }
+                // the operand is complete, only the parenthesis around it is left
+                this.tokenSource.skipSeparator(SeparatorType.PAREN_CLOSE);
+                operators.removeLast();
             }
         }
     }
 
-    private ExpressionTree parseTerm() {
-        ExpressionTree lhs = parseFactor();
+    /// Parses the next identifier or literal, pushing the parentheses and minus signs before it.
+    private int parseOperand(AstBuilder ast, List<Pending> operators) {
         while (true) {
-            if (this.tokenSource.peek() instanceof Operator(var type, _)
-                && (type == OperatorType.MUL || type == OperatorType.DIV || type == OperatorType.MOD)) {
-                this.tokenSource.consume();
-                lhs = new BinaryOperationTree(lhs, parseFactor(), type);
-            } else {
-                return lhs;
+            if (this.tokenSource.peekIsSeparator(SeparatorType.PAREN_OPEN)) {
+                this.tokenSource.skip();
+                operators.add(Pending.OPEN_PAREN);
+                continue;
+            }
+            switch (this.tokenSource.peek()) {
+                case Operator(var type, Span span) when type == OperatorType.MINUS -> {
+                    this.tokenSource.skip();
+                    operators.add(new Pending.Negate(span));
+                }
+                case Identifier ident -> {
+                    this.tokenSource.skip();
+                    return ast.identExpression(name(ast, ident));
+                }
+                case NumberLiteral(String value, int base, long parsedValue, Span span) -> {
+                    this.tokenSource.skip();
+                    return ast.literal(value, base, parsedValue, span);
+                }
+                case Token t -> throw new ParseException("invalid factor " + t, t.span());
             }
         }
     }
 
-    private ExpressionTree parseFactor() {
-        return switch (this.tokenSource.peek()) {
-            case Separator(var type, _) when type == SeparatorType.PAREN_OPEN -> {
-                this.tokenSource.consume();
-                ExpressionTree expression = parseExpression();
-                this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
-                yield expression;
-            }
-            case Operator(var type, _) when type == OperatorType.MINUS -> {
-                Span span = this.tokenSource.consume().span();
-                yield new NegateTree(parseFactor(), span);
-            }
-            case Identifier ident -> {
-                this.tokenSource.consume();
-                yield new IdentExpressionTree(name(ident));
-            }
-            case NumberLiteral(String value, int base, Span span) -> {
-                this.tokenSource.consume();
-                yield new LiteralTree(value, base, span);
-            }
-            case Token t -> throw new ParseException("invalid factor " + t);
+    /// Applies the minus signs directly before the last operand, they bind tighter than any binary operator.
+    private static void reduceNegations(AstBuilder ast, List<Integer> operands, List<Pending> operators) {
+        while (!operators.isEmpty() && operators.getLast() instanceof Pending.Negate(Span minus)) {
+            operators.removeLast();
+            operands.set(operands.size() - 1, ast.negate(operands.getLast(), minus));
+        }
+    }
+
+    /// Applies the binary operators of at least the given precedence, left to right.
+    private static void reduceBinaryOperations(
+        AstBuilder ast, List<Integer> operands, List<Pending> operators, int min
+    ) {
+        while (!operators.isEmpty()
+            && operators.getLast() instanceof Pending.Binary(OperatorType type)
+            && precedence(type) >= min) {
+            operators.removeLast();
+            int rhs = operands.removeLast();
+            operands.set(operands.size() - 1, ast.binaryOperation(operands.getLast(), rhs, type));
+        }
+    }
+
+    private static int precedence(@Nullable OperatorType type) {
+        return switch (type) {
+            case PLUS, MINUS -> 1;
+            case MUL, DIV, MOD -> 2;
+            case null, default -> 0;
         };
     }
 
-    private static NameTree name(Identifier ident) {
-        return new NameTree(Name.forIdentifier(ident), ident.span());
+    /// An operator of [#parseExpression()] that still waits for its operands.
+    private sealed interface Pending {
+        Pending OPEN_PAREN = new OpenParen();
+
+        record Binary(OperatorType type) implements Pending {
+        }
+
+        record Negate(Span minus) implements Pending {
+        }
+
+        record OpenParen() implements Pending {
+        }
+    }
+
+    private static int name(AstBuilder ast, Identifier ident) {
+        return ast.name(Name.forIdentifier(ident), ident.span());
     }
 }
@@ -0,0 +1,81 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.lexer.IncrementalLexer.Move;
+import edu.kit.kastel.vads.compiler.lexer.Operator;
+import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
+import org.jspecify.annotations.Nullable;
+
+/// Copies statement trees with the spans their tokens got from an edit, see [IncrementalFrontend].
+/// The copy equals the tree a parse of the moved tokens creates.
+final class StatementMover {
+    // deeper expressions are parsed again instead, moving them recursively could overflow the stack
+    private static final int MAX_DEPTH = 256;
+
+    private StatementMover() {
+
+    }
+
+    /// {@return the moved statement, or `null` if it is nested too deep to be moved}
+    static @Nullable StatementTree move(StatementTree statement, Move move) {
+        return switch (statement) {
+            case AssignmentTree(LValueIdentTree(NameTree name), Operator operator, ExpressionTree expression) -> {
+                ExpressionTree moved = move(expression, move, 0);
+                yield moved == null ? null : new AssignmentTree(
+                    new LValueIdentTree(move(name, move)),
+                    new Operator(operator.type(), move.apply(operator.span())),
+                    moved
+                );
+            }
+            case DeclarationTree(TypeTree type, NameTree name, ExpressionTree initializer) -> {
+                ExpressionTree moved = initializer == null ? null : move(initializer, move, 0);
+                if (initializer != null && moved == null) {
+                    yield null;
+                }
+                yield new DeclarationTree(new TypeTree(type.type(), move.apply(type.span())), move(name, move), moved);
+            }
+            case ReturnTree(ExpressionTree expression, var start) -> {
+                ExpressionTree moved = move(expression, move, 0);
+                yield moved == null ? null : new ReturnTree(moved, move.apply(start));
+            }
+            // only the function body is a block
+            case BlockTree _ -> null;
+        };
+    }
+
+    private static @Nullable ExpressionTree move(ExpressionTree expression, Move move, int depth) {
+        if (depth == MAX_DEPTH) {
+            return null;
+        }
+        return switch (expression) {
+            case BinaryOperationTree(ExpressionTree lhs, ExpressionTree rhs, var type) -> {
+                ExpressionTree movedLhs = move(lhs, move, depth + 1);
+                ExpressionTree movedRhs = movedLhs == null ? null : move(rhs, move, depth + 1);
+                yield movedRhs == null ? null : new BinaryOperationTree(movedLhs, movedRhs, type);
+            }
+            case IdentExpressionTree(NameTree name) -> new IdentExpressionTree(move(name, move));
+            case LiteralTree literal -> new LiteralTree(
+                literal.value(), literal.base(), literal.parsedValue(), move.apply(literal.span())
+            );
+            case NegateTree(ExpressionTree inner, var minusPos) -> {
+                ExpressionTree moved = move(inner, move, depth + 1);
+                yield moved == null ? null : new NegateTree(moved, move.apply(minusPos));
+            }
+        };
+    }
+
+    private static NameTree move(NameTree name, Move move) {
+        return new NameTree(name.name(), move.apply(name.span()));
+    }
+}
@@ -0,0 +1,87 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.lexer.KeywordType;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+import edu.kit.kastel.vads.compiler.lexer.TokenBuffer;
+import edu.kit.kastel.vads.compiler.lexer.TokenKind;
+import org.jspecify.annotations.Nullable;
+
+/// Feeds the [Parser] from a [TokenBuffer].
+/// Token objects are only created for tokens the parser actually looks at, and at most once per token.
+/// The `peekIs...` methods read the buffer directly.
+public class TokenBufferSource implements TokenStream {
+    private final TokenBuffer buffer;
+    private int idx;
+    // the token object for the index peekedIdx, the parser often peeks several times before consuming
+    private @Nullable Token peeked;
+    private int peekedIdx = -1;
+
+    public TokenBufferSource(TokenBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public Token peek() {
+        expectHasMore();
+        Token token = this.peeked;
+        if (token == null || this.peekedIdx != this.idx) {
+            token = this.buffer.token(this.idx);
+            this.peeked = token;
+            this.peekedIdx = this.idx;
+        }
+        return token;
+    }
+
+    @Override
+    public Token consume() {
+        Token token = peek();
+        this.idx++;
+        return token;
+    }
+
+    @Override
+    public void skip() {
+        expectHasMore();
+        this.idx++;
+    }
+
+    @Override
+    public boolean hasMore() {
+        return this.idx < this.buffer.size();
+    }
+
+    @Override
+    public boolean peekIsKeyword(KeywordType type) {
+        expectHasMore();
+        return this.buffer.isKeyword(this.idx, type);
+    }
+
+    @Override
+    public boolean peekIsOperator(OperatorType type) {
+        expectHasMore();
+        return this.buffer.isOperator(this.idx, type);
+    }
+
+    @Override
+    public boolean peekIsSeparator(SeparatorType type) {
+        expectHasMore();
+        return this.buffer.isSeparator(this.idx, type);
+    }
+
+    @Override
+    public @Nullable OperatorType peekOperator() {
+        expectHasMore();
+        if (this.buffer.kind(this.idx) != TokenKind.OPERATOR) {
+            return null;
+        }
+        return this.buffer.operatorType(this.idx);
+    }
+
+    private void expectHasMore() {
+        if (this.idx >= this.buffer.size()) {
+            throw new ParseException("reached end of file");
+        }
+    }
+}
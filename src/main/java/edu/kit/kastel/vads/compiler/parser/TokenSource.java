@@ -1,87 +1,85 @@
 package edu.kit.kastel.vads.compiler.parser;
 
-import edu.kit.kastel.vads.compiler.lexer.Identifier;
-import edu.kit.kastel.vads.compiler.lexer.Keyword;
-import edu.kit.kastel.vads.compiler.lexer.KeywordType;
 import edu.kit.kastel.vads.compiler.lexer.Lexer;
-import edu.kit.kastel.vads.compiler.lexer.Operator;
-import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
-import edu.kit.kastel.vads.compiler.lexer.Separator;
-import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
 import edu.kit.kastel.vads.compiler.lexer.Token;
+import org.jspecify.annotations.Nullable;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Objects;
+import java.util.function.Supplier;
 
-public class TokenSource {
-    private final List<Token> tokens;
-    private int idx;
+/// Provides tokens to the [Parser] with a bounded lookahead.
+/// Tokens are pulled on demand into a small ring buffer, so only the lookahead window
+/// is kept alive instead of the whole token list.
+public class TokenSource implements TokenStream {
+    /// The maximum number of tokens that can be looked at without consuming them.
+    /// Must be a power of two.
+    public static final int LOOKAHEAD = 4;
 
+    private final Supplier<@Nullable Token> next;
+    private final @Nullable Token[] buffer = new Token[LOOKAHEAD];
+    private int head;
+    private int size;
+    private boolean exhausted;
+
+    /// Creates a streaming token source that lexes lazily while parsing.
     public TokenSource(Lexer lexer) {
-        this.tokens = Stream.generate(lexer::nextToken)
-            .takeWhile(Optional::isPresent)
-            .map(Optional::orElseThrow)
-            .toList();
+        this.next = () -> lexer.nextToken().orElse(null);
     }
 
     TokenSource(List<Token> tokens) {
-        this.tokens = List.copyOf(tokens);
+        Iterator<Token> iterator = List.copyOf(tokens).iterator();
+        this.next = () -> iterator.hasNext() ? iterator.next() : null;
     }
 
+    @Override
     public Token peek() {
-        expectHasMore();
-        return this.tokens.get(this.idx);
-    }
-
-    public Keyword expectKeyword(KeywordType type) {
-        Token token = peek();
-        if (!(token instanceof Keyword kw) || kw.type() != type) {
-            throw new ParseException("expected keyword '" + type + "' but got " + token);
-        }
-        this.idx++;
-        return kw;
-    }
-
-    public Separator expectSeparator(SeparatorType type) {
-        Token token = peek();
-        if (!(token instanceof Separator sep) || sep.type() != type) {
-            throw new ParseException("expected separator '" + type + "' but got " + token);
-        }
-        this.idx++;
-        return sep;
+        return peek(0);
     }
 
-    public Operator expectOperator(OperatorType type) {
-        Token token = peek();
-        if (!(token instanceof Operator op) || op.type() != type) {
-            throw new ParseException("expected operator '" + type + "' but got " + token);
+    /// {@return the token `offset` tokens ahead of the current one}
+    /// @param offset the lookahead, less than [#LOOKAHEAD]
+    public Token peek(int offset) {
+        if (offset < 0 || offset >= LOOKAHEAD) {
+            throw new IllegalArgumentException("lookahead " + offset + " exceeds " + LOOKAHEAD);
         }
-        this.idx++;
-        return op;
-    }
-    public Identifier expectIdentifier() {
-        Token token = peek();
-        if (!(token instanceof Identifier ident)) {
-            throw new ParseException("expected identifier but got " + token);
+        if (!fill(offset + 1)) {
+            throw new ParseException("reached end of file");
         }
-        this.idx++;
-        return ident;
+        return Objects.requireNonNull(this.buffer[(this.head + offset) & (LOOKAHEAD - 1)]);
     }
 
+    @Override
     public Token consume() {
         Token token = peek();
-        this.idx++;
+        advance();
         return token;
     }
 
+    @Override
     public boolean hasMore() {
-        return this.idx < this.tokens.size();
+        return fill(1);
     }
 
-    private void expectHasMore() {
-        if (this.idx >= this.tokens.size()) {
-            throw new ParseException("reached end of file");
+    private void advance() {
+        this.buffer[this.head] = null;
+        this.head = (this.head + 1) & (LOOKAHEAD - 1);
+        this.size--;
+    }
+
+    /// Pulls tokens until at least `count` are buffered.
+    /// {@return whether `count` tokens are available}
+    private boolean fill(int count) {
+        while (this.size < count && !this.exhausted) {
+            Token token = this.next.get();
+            if (token == null) {
+                this.exhausted = true;
+            } else {
+                this.buffer[(this.head + this.size) & (LOOKAHEAD - 1)] = token;
+                this.size++;
+            }
         }
+        return this.size >= count;
     }
 }
@@ -0,0 +1,85 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.lexer.Identifier;
+import edu.kit.kastel.vads.compiler.lexer.Keyword;
+import edu.kit.kastel.vads.compiler.lexer.KeywordType;
+import edu.kit.kastel.vads.compiler.lexer.Operator;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.Separator;
+import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+import org.jspecify.annotations.Nullable;
+
+/// The tokens consumed by the [Parser].
+/// The `peekIs...` and `skip...` methods allow implementations that don't store token objects
+/// to answer without creating one.
+public interface TokenStream {
+
+    Token peek();
+
+    Token consume();
+
+    boolean hasMore();
+
+    /// Consumes the next token without returning it.
+    default void skip() {
+        consume();
+    }
+
+    default boolean peekIsKeyword(KeywordType type) {
+        return peek().isKeyword(type);
+    }
+
+    default boolean peekIsOperator(OperatorType type) {
+        return peek().isOperator(type);
+    }
+
+    default boolean peekIsSeparator(SeparatorType type) {
+        return peek().isSeparator(type);
+    }
+
+    /// {@return the type of the next token if it is an operator, `null` otherwise}
+    default @Nullable OperatorType peekOperator() {
+        return peek() instanceof Operator op ? op.type() : null;
+    }
+
+    default Keyword expectKeyword(KeywordType type) {
+        if (!peekIsKeyword(type)) {
+            throw new ParseException("expected keyword '" + type + "' but got " + peek(), peek().span());
+        }
+        return (Keyword) consume();
+    }
+
+    default Separator expectSeparator(SeparatorType type) {
+        checkSeparator(type);
+        return (Separator) consume();
+    }
+
+    /// Like [#expectSeparator(SeparatorType)], but doesn't return the separator.
+    default void skipSeparator(SeparatorType type) {
+        checkSeparator(type);
+        skip();
+    }
+
+    private void checkSeparator(SeparatorType type) {
+        if (!peekIsSeparator(type)) {
+            throw new ParseException("expected separator '" + type + "' but got " + peek(), peek().span());
+        }
+    }
+
+    default Operator expectOperator(OperatorType type) {
+        if (!peekIsOperator(type)) {
+            throw new ParseException("expected operator '" + type + "' but got " + peek(), peek().span());
+        }
+        return (Operator) consume();
+    }
+
+    default Identifier expectIdentifier() {
+        Token token = peek();
+        if (!(token instanceof Identifier ident)) {
+            throw new ParseException("expected identifier but got " + token, token.span());
+        }
+        skip();
+        return ident;
+    }
+}
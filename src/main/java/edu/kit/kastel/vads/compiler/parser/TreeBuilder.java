@@ -0,0 +1,117 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.Position;
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.Operator;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.AstBuilder;
+import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LValueTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// Creates a record for each node, the id of a node is the index of its record.
+final class TreeBuilder implements AstBuilder {
+    private final List<Tree> trees = new ArrayList<>();
+
+    Tree tree(int node) {
+        return this.trees.get(node);
+    }
+
+    @Override
+    public int type(Type type, Span span) {
+        return add(new TypeTree(type, span));
+    }
+
+    @Override
+    public int name(Name name, Span span) {
+        return add(new NameTree(name, span));
+    }
+
+    @Override
+    public int identExpression(int name) {
+        return add(new IdentExpressionTree((NameTree) tree(name)));
+    }
+
+    @Override
+    public int literal(String value, int base, long parsedValue, Span span) {
+        return add(new LiteralTree(value, base, parsedValue, span));
+    }
+
+    @Override
+    public int negate(int expression, Span minusPos) {
+        return add(new NegateTree((ExpressionTree) tree(expression), minusPos));
+    }
+
+    @Override
+    public int binaryOperation(int lhs, int rhs, OperatorType type) {
+        return add(new BinaryOperationTree((ExpressionTree) tree(lhs), (ExpressionTree) tree(rhs), type));
+    }
+
+    @Override
+    public int lValueIdent(int name) {
+        return add(new LValueIdentTree((NameTree) tree(name)));
+    }
+
+    @Override
+    public int assignment(int lValue, Operator operator, int expression) {
+        return add(new AssignmentTree((LValueTree) tree(lValue), operator, (ExpressionTree) tree(expression)));
+    }
+
+    @Override
+    public int declaration(int type, int name, int initializer) {
+        ExpressionTree expression = initializer == NONE ? null : (ExpressionTree) tree(initializer);
+        return add(new DeclarationTree((TypeTree) tree(type), (NameTree) tree(name), expression));
+    }
+
+    @Override
+    public int returnStatement(int expression, Position start) {
+        return add(new ReturnTree((ExpressionTree) tree(expression), start));
+    }
+
+    @Override
+    public int block(int[] statements, int count, Span span) {
+        List<StatementTree> trees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trees.add((StatementTree) tree(statements[i]));
+        }
+        return add(new BlockTree(trees, span));
+    }
+
+    @Override
+    public int function(int returnType, int name, int body) {
+        return add(new FunctionTree((TypeTree) tree(returnType), (NameTree) tree(name), (BlockTree) tree(body)));
+    }
+
+    @Override
+    public int program(int[] functions, int count) {
+        List<FunctionTree> trees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trees.add((FunctionTree) tree(functions[i]));
+        }
+        return add(new ProgramTree(trees));
+    }
+
+    private int add(Tree tree) {
+        this.trees.add(tree);
+        return this.trees.size() - 1;
+    }
+}
@@ -0,0 +1,416 @@
+package edu.kit.kastel.vads.compiler.parser.ast;
+
+import edu.kit.kastel.vads.compiler.Position;
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.Operator;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.type.Type;
+import edu.kit.kastel.vads.compiler.parser.visitor.RecursivePostorderVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/// A compact form of a [ProgramTree] that stores all nodes in flat arrays instead of one object each,
+/// see [edu.kit.kastel.vads.compiler.parser.Parser#parseArena()].
+/// A node is an index into these arrays. Nodes are stored in postorder, so the children of a node
+/// come before it and every subtree is a contiguous range ending at its root.
+///
+/// Besides its [Kind], a node has up to three `int` slots and the span it doesn't derive from its children:
+///
+/// | kind                | first         | second      | third            | span                |
+/// |---------------------|---------------|-------------|------------------|---------------------|
+/// | `PROGRAM`           | children from | child count |                  |                     |
+/// | `BLOCK`             | children from | child count |                  | the braces          |
+/// | `FUNCTION`          | return type   | name        | body             |                     |
+/// | `DECLARATION`       | type          | name        | initializer / -1 |                     |
+/// | `ASSIGNMENT`        | lvalue        | expression  | operator type    | the operator        |
+/// | `BINARY_OPERATION`  | lhs           | rhs         | operator type    |                     |
+/// | `NEGATE`            | expression    |             |                  | the minus           |
+/// | `RETURN`            | expression    |             |                  | starts at `return`  |
+/// | `IDENT_EXPRESSION`, `LVALUE_IDENT` | name |        |                  |                     |
+/// | `NAME`, `TYPE`      | constant      |             |                  | the name / type     |
+/// | `LITERAL`           | text constant | base        | value index      | the literal         |
+///
+/// The children of programs and blocks are listed in a shared child array. Names, types and literal
+/// texts are stored once in a constant pool. The parsed values of literals are kept in an array of their own,
+/// invalid ones as [edu.kit.kastel.vads.compiler.lexer.NumberLiteral#INVALID], so they aren't parsed again.
+/// Records are only created on request, see [#tree(int)] and [#postorder(Visitor, Object)].
+public final class AstArena {
+    private static final int NONE = AstBuilder.NONE;
+    private static final Kind[] KINDS = Kind.values();
+    private static final OperatorType[] OPERATOR_TYPES = OperatorType.values();
+
+    public enum Kind {
+        ASSIGNMENT,
+        BINARY_OPERATION,
+        BLOCK,
+        DECLARATION,
+        FUNCTION,
+        IDENT_EXPRESSION,
+        LITERAL,
+        LVALUE_IDENT,
+        NAME,
+        NEGATE,
+        PROGRAM,
+        RETURN,
+        TYPE
+    }
+
+    private byte[] kinds;
+    private int[] first;
+    private int[] second;
+    private int[] third;
+    // the bits of a packed span, or an index into the constants for spans that don't fit, see wideSpans
+    private long[] spans;
+    private final BitSet wideSpans = new BitSet();
+    private int size;
+
+    private int[] children = new int[16];
+    private int childCount;
+
+    private long[] literalValues = new long[16];
+    private int literalCount;
+
+    private final ArrayList<Object> constants = new ArrayList<>();
+    // only needed while building
+    private @Nullable Map<Object, Integer> constantIds = new HashMap<>();
+
+    private AstArena(int capacity) {
+        this.kinds = new byte[capacity];
+        this.first = new int[capacity];
+        this.second = new int[capacity];
+        this.third = new int[capacity];
+        this.spans = new long[capacity];
+    }
+
+    /// {@return the number of nodes}
+    public int size() {
+        return this.size;
+    }
+
+    /// {@return the program node}
+    public int root() {
+        return this.size - 1;
+    }
+
+    public Kind kind(int node) {
+        return KINDS[this.kinds[node]];
+    }
+
+    /// {@return the number of children of a program or block node}
+    public int childCount(int node) {
+        return this.second[node];
+    }
+
+    /// {@return the `index`th child of a program or block node}
+    public int child(int node, int index) {
+        return this.children[this.first[node] + index];
+    }
+
+    /// {@return the first slot of the given node, see the table above}
+    public int first(int node) {
+        return this.first[node];
+    }
+
+    public int second(int node) {
+        return this.second[node];
+    }
+
+    public int third(int node) {
+        return this.third[node];
+    }
+
+    public OperatorType operatorType(int node) {
+        return OPERATOR_TYPES[this.third[node]];
+    }
+
+    public Name name(int node) {
+        return (Name) this.constants.get(this.first[node]);
+    }
+
+    /// {@return the parsed value of a literal node, see [LiteralTree#parsedValue()]}
+    public long literalValue(int node) {
+        return this.literalValues[this.third[node]];
+    }
+
+    /// {@return the given node and its subtree as records}
+    public Tree tree(int node) {
+        int from = node;
+        // the leftmost leaf of a subtree is its first node
+        while (true) {
+            int leftmost = firstChild(from);
+            if (leftmost == NONE) {
+                break;
+            }
+            from = leftmost;
+        }
+        Materializer materializer = new Materializer();
+        for (int i = from; i <= node; i++) {
+            materializer.push(i);
+        }
+        return materializer.pop();
+    }
+
+    /// Visits all nodes in the same order as a [RecursivePostorderVisitor] that doesn't accumulate.
+    /// This walks the arrays front to back without recursion, each node is materialized as a record
+    /// once, right before it is visited.
+    /// Only the records of nodes whose parent wasn't reached yet are kept.
+    /// {@return the result of visiting the program node}
+    public <T, R> @Nullable R postorder(Visitor<T, R> visitor, T data) {
+        Materializer materializer = new Materializer();
+        R result = null;
+        for (int node = 0; node < this.size; node++) {
+            result = materializer.push(node).accept(visitor, data);
+        }
+        return result;
+    }
+
+    private int firstChild(int node) {
+        return switch (kind(node)) {
+            case PROGRAM, BLOCK -> childCount(node) == 0 ? NONE : child(node, 0);
+            case ASSIGNMENT, BINARY_OPERATION, DECLARATION, FUNCTION, IDENT_EXPRESSION, LVALUE_IDENT, NEGATE, RETURN ->
+                this.first[node];
+            case LITERAL, NAME, TYPE -> NONE;
+        };
+    }
+
+    /// {@return the number of direct children of a node}
+    private int arity(int node) {
+        return switch (kind(node)) {
+            case PROGRAM, BLOCK -> childCount(node);
+            case FUNCTION -> 3;
+            case DECLARATION -> this.third[node] == NONE ? 2 : 3;
+            case ASSIGNMENT, BINARY_OPERATION -> 2;
+            case IDENT_EXPRESSION, LVALUE_IDENT, NEGATE, RETURN -> 1;
+            case LITERAL, NAME, TYPE -> 0;
+        };
+    }
+
+    /// Creates the records of consecutive nodes. The records of the nodes whose parent wasn't pushed yet
+    /// are kept on a stack, as nodes are in postorder, the children of the next node are on top of it.
+    private final class Materializer {
+        private Tree[] stack = new Tree[16];
+        private int depth;
+
+        /// Creates the record of the node from the records of its children, which are replaced by it.
+        /// {@return the record}
+        Tree push(int node) {
+            int from = this.depth - arity(node);
+            Tree tree = materialize(node, this.stack, from);
+            if (from == this.stack.length) {
+                this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+            }
+            Arrays.fill(this.stack, from, this.depth, null);
+            this.stack[from] = tree;
+            this.depth = from + 1;
+            return tree;
+        }
+
+        Tree pop() {
+            Tree tree = this.stack[--this.depth];
+            this.stack[this.depth] = null;
+            return tree;
+        }
+    }
+
+    /// Creates the record of a node from the records of its children, which are `children[from]` and on.
+    private Tree materialize(int node, Tree[] children, int from) {
+        int b = this.second[node];
+        int c = this.third[node];
+        return switch (kind(node)) {
+            case ASSIGNMENT -> new AssignmentTree(
+                (LValueTree) children[from],
+                new Operator(OPERATOR_TYPES[c], storedSpan(node)),
+                (ExpressionTree) children[from + 1]
+            );
+            case BINARY_OPERATION -> new BinaryOperationTree(
+                (ExpressionTree) children[from], (ExpressionTree) children[from + 1], OPERATOR_TYPES[c]
+            );
+            case BLOCK -> {
+                List<StatementTree> statements = new ArrayList<>(b);
+                for (int i = 0; i < b; i++) {
+                    statements.add((StatementTree) children[from + i]);
+                }
+                yield new BlockTree(statements, storedSpan(node));
+            }
+            case DECLARATION -> new DeclarationTree(
+                (TypeTree) children[from],
+                (NameTree) children[from + 1],
+                c == NONE ? null : (ExpressionTree) children[from + 2]
+            );
+            case FUNCTION -> new FunctionTree(
+                (TypeTree) children[from], (NameTree) children[from + 1], (BlockTree) children[from + 2]
+            );
+            case IDENT_EXPRESSION -> new IdentExpressionTree((NameTree) children[from]);
+            case LITERAL -> new LiteralTree(
+                (String) this.constants.get(this.first[node]), b, this.literalValues[c], storedSpan(node)
+            );
+            case LVALUE_IDENT -> new LValueIdentTree((NameTree) children[from]);
+            case NAME -> new NameTree((Name) this.constants.get(this.first[node]), storedSpan(node));
+            case NEGATE -> new NegateTree((ExpressionTree) children[from], storedSpan(node));
+            case PROGRAM -> {
+                List<FunctionTree> functions = new ArrayList<>(b);
+                for (int i = 0; i < b; i++) {
+                    functions.add((FunctionTree) children[from + i]);
+                }
+                yield new ProgramTree(functions);
+            }
+            case RETURN -> new ReturnTree((ExpressionTree) children[from], storedSpan(node).start());
+            case TYPE -> new TypeTree((Type) this.constants.get(this.first[node]), storedSpan(node));
+        };
+    }
+
+    private Span storedSpan(int node) {
+        if (this.wideSpans.get(node)) {
+            return (Span) this.constants.get((int) this.spans[node]);
+        }
+        return new Span.PackedSpan(this.spans[node]);
+    }
+
+    /// Writes the nodes passed by the parser into a new arena.
+    public static final class Builder implements AstBuilder {
+        private final AstArena arena = new AstArena(64);
+
+        /// {@return the arena of the nodes added so far, the builder must not be used afterwards}
+        public AstArena build() {
+            this.arena.trim();
+            return this.arena;
+        }
+
+        @Override
+        public int type(Type type, Span span) {
+            return this.arena.node(Kind.TYPE, this.arena.constant(type), NONE, NONE, span);
+        }
+
+        @Override
+        public int name(Name name, Span span) {
+            return this.arena.node(Kind.NAME, this.arena.constant(name), NONE, NONE, span);
+        }
+
+        @Override
+        public int identExpression(int name) {
+            return this.arena.node(Kind.IDENT_EXPRESSION, name, NONE, NONE, null);
+        }
+
+        @Override
+        public int literal(String value, int base, long parsedValue, Span span) {
+            int valueIndex = this.arena.literalValue(parsedValue);
+            return this.arena.node(Kind.LITERAL, this.arena.constant(value), base, valueIndex, span);
+        }
+
+        @Override
+        public int negate(int expression, Span minusPos) {
+            return this.arena.node(Kind.NEGATE, expression, NONE, NONE, minusPos);
+        }
+
+        @Override
+        public int binaryOperation(int lhs, int rhs, OperatorType type) {
+            return this.arena.node(Kind.BINARY_OPERATION, lhs, rhs, type.ordinal(), null);
+        }
+
+        @Override
+        public int lValueIdent(int name) {
+            return this.arena.node(Kind.LVALUE_IDENT, name, NONE, NONE, null);
+        }
+
+        @Override
+        public int assignment(int lValue, Operator operator, int expression) {
+            return this.arena.node(Kind.ASSIGNMENT, lValue, expression, operator.type().ordinal(), operator.span());
+        }
+
+        @Override
+        public int declaration(int type, int name, int initializer) {
+            return this.arena.node(Kind.DECLARATION, type, name, initializer, null);
+        }
+
+        @Override
+        public int returnStatement(int expression, Position start) {
+            Span span = Span.singleLine(start.line(), start.column(), 0);
+            return this.arena.node(Kind.RETURN, expression, NONE, NONE, span);
+        }
+
+        @Override
+        public int block(int[] statements, int count, Span span) {
+            return this.arena.list(Kind.BLOCK, statements, count, span);
+        }
+
+        @Override
+        public int function(int returnType, int name, int body) {
+            return this.arena.node(Kind.FUNCTION, returnType, name, body, null);
+        }
+
+        @Override
+        public int program(int[] functions, int count) {
+            return this.arena.list(Kind.PROGRAM, functions, count, null);
+        }
+    }
+
+    private int list(Kind kind, int[] nodes, int count, @Nullable Span span) {
+        if (this.childCount + count > this.children.length) {
+            int capacity = this.children.length + (this.children.length >> 1);
+            this.children = Arrays.copyOf(this.children, Math.max(capacity, this.childCount + count));
+        }
+        System.arraycopy(nodes, 0, this.children, this.childCount, count);
+        int from = this.childCount;
+        this.childCount += count;
+        return node(kind, from, count, NONE, span);
+    }
+
+    private int literalValue(long value) {
+        if (this.literalCount == this.literalValues.length) {
+            this.literalValues = Arrays.copyOf(this.literalValues, this.literalCount + (this.literalCount >> 1));
+        }
+        this.literalValues[this.literalCount] = value;
+        return this.literalCount++;
+    }
+
+    private int constant(Object value) {
+        return Objects.requireNonNull(this.constantIds).computeIfAbsent(value, v -> {
+            this.constants.add(v);
+            return this.constants.size() - 1;
+        });
+    }
+
+    private int node(Kind kind, int a, int b, int c, @Nullable Span span) {
+        if (this.size == this.kinds.length) {
+            int capacity = this.size + (this.size >> 1);
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.first = Arrays.copyOf(this.first, capacity);
+            this.second = Arrays.copyOf(this.second, capacity);
+            this.third = Arrays.copyOf(this.third, capacity);
+            this.spans = Arrays.copyOf(this.spans, capacity);
+        }
+        int node = this.size++;
+        this.kinds[node] = (byte) kind.ordinal();
+        this.first[node] = a;
+        this.second[node] = b;
+        this.third[node] = c;
+        if (span instanceof Span.PackedSpan packed) {
+            this.spans[node] = packed.bits();
+        } else if (span != null) {
+            this.spans[node] = constant(span);
+            this.wideSpans.set(node);
+        }
+        return node;
+    }
+
+    private void trim() {
+        this.kinds = Arrays.copyOf(this.kinds, this.size);
+        this.first = Arrays.copyOf(this.first, this.size);
+        this.second = Arrays.copyOf(this.second, this.size);
+        this.third = Arrays.copyOf(this.third, this.size);
+        this.spans = Arrays.copyOf(this.spans, this.size);
+        this.children = Arrays.copyOf(this.children, this.childCount);
+        this.literalValues = Arrays.copyOf(this.literalValues, this.literalCount);
+        this.constants.trimToSize();
+        this.constantIds = null;
+    }
+}
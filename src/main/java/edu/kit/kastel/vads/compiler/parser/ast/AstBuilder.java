@@ -0,0 +1,43 @@
+package edu.kit.kastel.vads.compiler.parser.ast;
+
+import edu.kit.kastel.vads.compiler.Position;
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.Operator;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.type.Type;
+
+/// Receives the nodes of a program from the parser, in postorder.
+/// Each method returns an id for the new node, which is passed on to the method creating its parent.
+/// The parameters match the components of the records in this package.
+public interface AstBuilder {
+    /// The id of an absent node, e.g. a declaration without initializer.
+    int NONE = -1;
+
+    int type(Type type, Span span);
+
+    int name(Name name, Span span);
+
+    int identExpression(int name);
+
+    int literal(String value, int base, long parsedValue, Span span);
+
+    int negate(int expression, Span minusPos);
+
+    int binaryOperation(int lhs, int rhs, OperatorType type);
+
+    int lValueIdent(int name);
+
+    int assignment(int lValue, Operator operator, int expression);
+
+    int declaration(int type, int name, int initializer);
+
+    int returnStatement(int expression, Position start);
+
+    /// Creates a block of the first `count` nodes in `statements`.
+    int block(int[] statements, int count, Span span);
+
+    int function(int returnType, int name, int body);
+
+    int program(int[] functions, int count);
+}
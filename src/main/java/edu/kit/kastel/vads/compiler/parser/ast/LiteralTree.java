@@ -1,46 +1,37 @@
 package edu.kit.kastel.vads.compiler.parser.ast;
 
 import edu.kit.kastel.vads.compiler.Span;
-import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.lexer.NumberLiteral;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
-import edu.kit.kastel.vads.compiler.semantic.SemanticException;
-import java.util.Optional;
 import java.util.OptionalLong;
 
-public record LiteralTree(String value, int base, Span span) implements ExpressionTree {
+/// `parsedValue` is the value of the literal as parsed by [NumberLiteral#parse], or [NumberLiteral#INVALID].
+public record LiteralTree(String value, int base, long parsedValue, Span span) implements ExpressionTree {
+
+  public LiteralTree(String value, int base, Span span) {
+    this(value, base, NumberLiteral.parse(value, 0, value.length(), base), span);
+  }
+
   @Override
   public <T, R> R accept(Visitor<T, R> visitor, T data) {
     return visitor.visit(this, data);
   }
 
-  public OptionalLong parseValue() {
-    int end = value.length();
-    return switch (base) {
-      case 16 -> parseHex(end);
-      case 10 -> parseDec(end);
-      default -> throw new IllegalArgumentException("unexpected base " + base);
-    };
+  /// {@return whether the literal is in range}
+  public boolean isValid() {
+    return parsedValue != NumberLiteral.INVALID;
   }
 
-  private OptionalLong parseDec(int end) {
-    long l;
-    try {
-      l = Long.parseLong(value, 0, end, base);
-    } catch (NumberFormatException _) {
-      return OptionalLong.empty();
+  /// {@return the 32 bit value of a valid literal}
+  public int intValue() {
+    if (!isValid()) {
+      throw new IllegalStateException("invalid literal " + value);
     }
-    if (l < 0 || l > Integer.toUnsignedLong(Integer.MIN_VALUE)) {
-      return OptionalLong.empty();
-    }
-    return OptionalLong.of(l);
+    return (int) parsedValue;
   }
 
-  private OptionalLong parseHex(int end) {
-    try {
-      return OptionalLong.of(Integer.parseUnsignedInt(value, 2, end, 16));
-    } catch (NumberFormatException e) {
-      return OptionalLong.empty();
-    }
+  public OptionalLong parseValue() {
+    return isValid() ? OptionalLong.of(parsedValue) : OptionalLong.empty();
   }
 
 }
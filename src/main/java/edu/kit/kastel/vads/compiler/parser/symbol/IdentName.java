@@ -1,6 +1,18 @@
 package edu.kit.kastel.vads.compiler.parser.symbol;
 
-record IdentName(String identifier) implements Name {
+/// `symbol` is the id of the identifier in the symbol table of the lexer, or `-1`.
+/// It only serves as a fast index, names are equal if their identifiers are.
+record IdentName(String identifier, int symbol) implements Name {
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof IdentName other && this.identifier.equals(other.identifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.identifier.hashCode();
+    }
+
     @Override
     public String asString() {
         return identifier();
@@ -0,0 +1,102 @@
+package edu.kit.kastel.vads.compiler.parser.symbol;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/// A map from [Name]s to values.
+/// Names of interned identifiers are looked up by their symbol id in an array,
+/// so neither hashing nor comparing strings is needed for them. A name that wasn't interned
+/// finds the entry of the same identifier through a map from identifiers to symbol ids, which is
+/// only filled the first time a symbol id is used.
+///
+/// Removing a mapping with [#merge] keeps the identifier of its symbol id, so a later [#put] of
+/// the same name reuses the array slot.
+public final class NameMap<V> {
+    private @Nullable Object[] bySymbol = new Object[16];
+    // the symbol ids that already have an entry in slots
+    private final BitSet indexed = new BitSet();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Map<Name, V> others = new HashMap<>();
+
+    public @Nullable V get(Name name) {
+        int slot = slot(name);
+        if (slot >= 0 && slot < this.bySymbol.length && this.bySymbol[slot] != null) {
+            return value(slot);
+        }
+        return this.others.isEmpty() ? null : this.others.get(name);
+    }
+
+    public void put(Name name, V value) {
+        int slot = slot(name);
+        if (slot < 0) {
+            this.others.put(name, value);
+            return;
+        }
+        ensureCapacity(slot);
+        this.bySymbol[slot] = value;
+        if (!this.indexed.get(slot)) {
+            this.indexed.set(slot);
+            this.slots.put(name.asString(), slot);
+        }
+        if (!this.others.isEmpty()) {
+            // stored before through a name that wasn't interned
+            this.others.remove(name);
+        }
+    }
+
+    public V computeIfAbsent(Name name, Function<? super Name, ? extends V> mappingFunction) {
+        V value = get(name);
+        if (value == null) {
+            value = mappingFunction.apply(name);
+            put(name, value);
+        }
+        return value;
+    }
+
+    /// Like [Map#merge(Object, Object, java.util.function.BiFunction)], the mapping is removed
+    /// if the merger returns `null`.
+    public void merge(Name name, V value, BinaryOperator<V> merger) {
+        V old = get(name);
+        V merged = old == null ? value : merger.apply(old, value);
+        if (merged != null) {
+            put(name, merged);
+            return;
+        }
+        int slot = slot(name);
+        if (slot >= 0 && slot < this.bySymbol.length) {
+            this.bySymbol[slot] = null;
+        }
+        this.others.remove(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @Nullable V value(int symbol) {
+        return (V) this.bySymbol[symbol];
+    }
+
+    private void ensureCapacity(int symbol) {
+        if (symbol >= this.bySymbol.length) {
+            int capacity = Math.max(symbol + 1, this.bySymbol.length * 2);
+            this.bySymbol = Arrays.copyOf(this.bySymbol, capacity);
+        }
+    }
+
+    /// {@return the index of the name in the array, or `-1` if it isn't stored there}
+    private int slot(Name name) {
+        if (!(name instanceof IdentName ident)) {
+            return -1;
+        }
+        if (ident.symbol() >= 0) {
+            return ident.symbol();
+        }
+        // only names created without the lexer get here
+        Integer slot = this.slots.get(ident.identifier());
+        return slot == null ? -1 : slot;
+    }
+}
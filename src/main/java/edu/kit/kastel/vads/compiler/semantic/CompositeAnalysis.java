@@ -0,0 +1,137 @@
+package edu.kit.kastel.vads.compiler.semantic;
+
+import edu.kit.kastel.vads.compiler.CompilerException;
+import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
+import edu.kit.kastel.vads.compiler.parser.visitor.RecursivePostorderVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// Runs several analyses in a single postorder traversal, each with its own state.
+///
+/// The result is the same as running the analyses one after another in the order they were added:
+/// an analysis that fails is not visited any further and its error is kept. Analyses added after it
+/// can't change the result anymore, so they are dropped. When the traversal ends, the error of the
+/// first failed analysis is thrown.
+class CompositeAnalysis implements Visitor<Unit, Unit> {
+    private final List<Analysis<?>> analyses = new ArrayList<>();
+    // the analyses still running, a prefix of analyses
+    private int active;
+    private @Nullable CompilerException failure;
+
+    private record Analysis<T>(Visitor<T, ?> visitor, T state) {
+        void visit(Tree tree) {
+            tree.accept(this.visitor, this.state);
+        }
+    }
+
+    <T> void add(Visitor<T, ?> analysis, T state) {
+        this.analyses.add(new Analysis<>(analysis, state));
+    }
+
+    void run(ProgramTree program) {
+        this.active = this.analyses.size();
+        this.failure = null;
+        program.accept(new RecursivePostorderVisitor<>(this), Unit.INSTANCE);
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    private Unit visitAll(Tree tree) {
+        for (int i = 0; i < this.active; i++) {
+            try {
+                this.analyses.get(i).visit(tree);
+            } catch (CompilerException e) {
+                if (i == 0) {
+                    throw e;
+                }
+                // an earlier analysis may still fail, so only the later ones can be stopped
+                this.failure = e;
+                this.active = i;
+            }
+        }
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(AssignmentTree assignmentTree, Unit data) {
+        return visitAll(assignmentTree);
+    }
+
+    @Override
+    public Unit visit(BinaryOperationTree binaryOperationTree, Unit data) {
+        return visitAll(binaryOperationTree);
+    }
+
+    @Override
+    public Unit visit(BlockTree blockTree, Unit data) {
+        return visitAll(blockTree);
+    }
+
+    @Override
+    public Unit visit(DeclarationTree declarationTree, Unit data) {
+        return visitAll(declarationTree);
+    }
+
+    @Override
+    public Unit visit(FunctionTree functionTree, Unit data) {
+        return visitAll(functionTree);
+    }
+
+    @Override
+    public Unit visit(IdentExpressionTree identExpressionTree, Unit data) {
+        return visitAll(identExpressionTree);
+    }
+
+    @Override
+    public Unit visit(LiteralTree literalTree, Unit data) {
+        return visitAll(literalTree);
+    }
+
+    @Override
+    public Unit visit(LValueIdentTree lValueIdentTree, Unit data) {
+        return visitAll(lValueIdentTree);
+    }
+
+    @Override
+    public Unit visit(NameTree nameTree, Unit data) {
+        return visitAll(nameTree);
+    }
+
+    @Override
+    public Unit visit(NegateTree negateTree, Unit data) {
+        return visitAll(negateTree);
+    }
+
+    @Override
+    public Unit visit(ProgramTree programTree, Unit data) {
+        return visitAll(programTree);
+    }
+
+    @Override
+    public Unit visit(ReturnTree returnTree, Unit data) {
+        return visitAll(returnTree);
+    }
+
+    @Override
+    public Unit visit(TypeTree typeTree, Unit data) {
+        return visitAll(typeTree);
+    }
+}
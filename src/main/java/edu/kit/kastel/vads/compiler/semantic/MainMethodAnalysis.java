@@ -14,7 +14,7 @@ class MainMethodAnalysis implements NoOpVisitor<MainMethodAnalysis.MainMethodSta
                 data.hasMainMethod = true;
             }
             else
-                throw new ParseException("No main method found");
+                throw new ParseException("No main method found", tree.span());
 
             return NoOpVisitor.super.visit(tree, data);
         }
@@ -1,19 +1,17 @@
 package edu.kit.kastel.vads.compiler.semantic;
 
 import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
-import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.symbol.NameMap;
 import org.jspecify.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.BinaryOperator;
 
 public class Namespace<T> {
 
-    private final Map<Name, T> content;
+    private final NameMap<T> content;
 
     public Namespace() {
-        this.content = new HashMap<>();
+        this.content = new NameMap<>();
     }
 
     public void put(NameTree name, T value, BinaryOperator<T> merger) {
@@ -1,21 +1,40 @@
 package edu.kit.kastel.vads.compiler.semantic;
 
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
-import edu.kit.kastel.vads.compiler.parser.visitor.RecursivePostorderVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class SemanticAnalysis {
 
   private final ProgramTree program;
+  // adds each registered analysis with a new state
+  private final List<Consumer<CompositeAnalysis>> registrations = new ArrayList<>();
 
   public SemanticAnalysis(ProgramTree program) {
     this.program = program;
+    register(new IntegerLiteralRangeAnalysis(), Namespace::new);
+    register(new VariableStatusAnalysis(), Namespace::new);
+    register(new ReturnAnalysis(), ReturnAnalysis.ReturnState::new);
+    register(new MainMethodAnalysis(), MainMethodAnalysis.MainMethodState::new);
+  }
+
+  /// Adds an analysis that visits the program in postorder, with a state created by `state` for each run.
+  /// All analyses share a single traversal. If several fail, the error of the one registered first is reported.
+  public <T> SemanticAnalysis register(Visitor<T, ?> analysis, Supplier<? extends T> state) {
+    this.registrations.add(analyses -> analyses.add(analysis, state.get()));
+    return this;
   }
 
   public void analyze() {
-    this.program.accept(new RecursivePostorderVisitor<>(new IntegerLiteralRangeAnalysis()), new Namespace<>());
-    this.program.accept(new RecursivePostorderVisitor<>(new VariableStatusAnalysis()), new Namespace<>());
-    this.program.accept(new RecursivePostorderVisitor<>(new ReturnAnalysis()), new ReturnAnalysis.ReturnState());
-    this.program.accept(new RecursivePostorderVisitor<>(new MainMethodAnalysis()), new MainMethodAnalysis.MainMethodState());
+    CompositeAnalysis analyses = new CompositeAnalysis();
+    for (Consumer<CompositeAnalysis> registration : this.registrations) {
+      registration.accept(analyses);
+    }
+    analyses.run(this.program);
   }
 
 }
@@ -1,7 +1,15 @@
 package edu.kit.kastel.vads.compiler.semantic;
 
-public class SemanticException extends RuntimeException {
+import edu.kit.kastel.vads.compiler.CompilerException;
+import edu.kit.kastel.vads.compiler.Span;
+import org.jspecify.annotations.Nullable;
+
+public class SemanticException extends CompilerException {
     public SemanticException(String message) {
-        super(message);
+        this(message, null);
+    }
+
+    public SemanticException(String message, @Nullable Span span) {
+        super(message, span);
     }
 }
@@ -0,0 +1,95 @@
+package edu.kit.kastel.vads.compiler;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompilerExceptionTest {
+
+    @Test
+    void parseErrorReportsSpan() {
+        ParseException e = assertThrows(ParseException.class, () -> parse("int main() {\n  return 1\n}"));
+        assertEquals(new Position.SimplePosition(2, 0), e.span().start());
+        assertEquals("error at " + e.span() + ": " + e.getMessage(), e.diagnostic());
+        assertTrue(e.getMessage().startsWith("expected separator ';'"), e.getMessage());
+    }
+
+    @Test
+    void semanticErrorReportsSpan() {
+        ProgramTree program = parse("int main() {\n  int x;\n  return x;\n}");
+        SemanticException e = assertThrows(SemanticException.class, () -> new SemanticAnalysis(program).analyze());
+        assertEquals(new Position.SimplePosition(2, 9), e.span().start());
+        assertEquals("error at " + e.span() + ": " + e.getMessage(), e.diagnostic());
+        assertTrue(e.getMessage().endsWith("must be initialized before use"), e.getMessage());
+    }
+
+    @Test
+    void diagnosticWithoutSpan() {
+        ParseException e = assertThrows(ParseException.class, () -> parse("int main() {"));
+        assertNull(e.span());
+        assertEquals("error: reached end of file", e.diagnostic());
+    }
+
+    @Test
+    void capturesStackTraceByDefault() {
+        assertFalse(CompilerException.diagnosticsMode());
+        assertNotEquals(0, new ParseException("x").getStackTrace().length);
+        assertNotEquals(0, new SemanticException("x").getStackTrace().length);
+    }
+
+    @Test
+    void diagnosticsModeSkipsStackTrace() throws Exception {
+        // the mode is read once, so the classes are loaded again with the property set
+        String previous = System.setProperty("diagnostics", "true");
+        try (URLClassLoader loader = new URLClassLoader(classPath(), ClassLoader.getPlatformClassLoader())) {
+            Class<?> base = loader.loadClass(CompilerException.class.getName());
+            assertNotEquals(CompilerException.class, base);
+            assertEquals(true, base.getMethod("diagnosticsMode").invoke(null));
+            for (Class<?> type : List.of(ParseException.class, SemanticException.class)) {
+                Object e = loader.loadClass(type.getName()).getConstructor(String.class).newInstance("x");
+                Throwable thrown = assertInstanceOf(Throwable.class, e);
+                assertEquals(0, thrown.getStackTrace().length, type.getName());
+                assertEquals("error: x", base.getMethod("diagnostic").invoke(e));
+            }
+        } finally {
+            if (previous == null) {
+                System.clearProperty("diagnostics");
+            } else {
+                System.setProperty("diagnostics", previous);
+            }
+        }
+    }
+
+    private static ProgramTree parse(String source) {
+        return new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+    }
+
+    private static URL[] classPath() throws MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            urls.add(Path.of(entry).toUri().toURL());
+        }
+        return urls.toArray(URL[]::new);
+    }
+}
@@ -0,0 +1,65 @@
+package edu.kit.kastel.vads.compiler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class SpanTest {
+    private static final int MAX_LINE = (1 << 24) - 1;
+    private static final int MAX_COLUMN = (1 << 24) - 1;
+    private static final int MAX_LENGTH = (1 << 16) - 1;
+
+    @Test
+    void packsComponentsLosslessly() {
+        int[][] cases = {
+            {0, 0, 0}, {0, 0, 1}, {3, 17, 5}, {MAX_LINE, 0, 0}, {0, MAX_COLUMN, 0}, {0, 0, MAX_LENGTH},
+            {MAX_LINE, MAX_COLUMN, MAX_LENGTH}, {12345, 678, 90},
+        };
+        for (int[] c : cases) {
+            Span span = Span.singleLine(c[0], c[1], c[2]);
+            Span.PackedSpan packed = assertInstanceOf(Span.PackedSpan.class, span);
+            assertEquals(c[0], packed.line());
+            assertEquals(c[1], packed.column());
+            assertEquals(c[2], packed.length());
+            assertEquals(new Position.SimplePosition(c[0], c[1]), span.start());
+            assertEquals(new Position.SimplePosition(c[0], c[1] + c[2]), span.end());
+        }
+    }
+
+    @Test
+    void fallsBackToRecordsIfTooLarge() {
+        int[][] cases = {{MAX_LINE + 1, 0, 0}, {0, MAX_COLUMN + 1, 0}, {0, 0, MAX_LENGTH + 1}, {-1, 0, 0}};
+        for (int[] c : cases) {
+            Span span = Span.singleLine(c[0], c[1], c[2]);
+            assertInstanceOf(Span.SimpleSpan.class, span);
+            assertEquals(new Position.SimplePosition(c[0], c[1]), span.start());
+            assertEquals(new Position.SimplePosition(c[0], c[1] + c[2]), span.end());
+        }
+    }
+
+    @Test
+    void printsLikeRecordSpan() {
+        Span packed = Span.singleLine(4, 2, 3);
+        Span simple = new Span.SimpleSpan(packed.start(), packed.end());
+        assertEquals(simple.toString(), packed.toString());
+    }
+
+    @Test
+    void mergesLikeRecordSpan() {
+        Span[][] cases = {
+            {Span.singleLine(1, 2, 3), Span.singleLine(1, 10, 4)},
+            {Span.singleLine(1, 2, 3), Span.singleLine(1, 2, 3)},
+            {Span.singleLine(1, 2, 3), Span.singleLine(5, 0, 1)},
+            {Span.singleLine(1, 8, 3), Span.singleLine(1, 2, 1)},
+            {Span.singleLine(1, 2, 3), Span.singleLine(1, MAX_COLUMN + 1, 1)},
+            {Span.singleLine(1, 2, 3), Span.singleLine(1, MAX_LENGTH, 7)},
+        };
+        for (Span[] c : cases) {
+            Span merged = c[0].merge(c[1]);
+            Span expected = new Span.SimpleSpan(c[0].start(), c[0].end()).merge(c[1]);
+            assertEquals(expected.start(), merged.start());
+            assertEquals(expected.end(), merged.end());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package edu.kit.kastel.vads.compiler.backend;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.single;
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.translate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LivenessAnalysisTest {
+
+    @Test
+    void listsSuccessorUsingNodeTwiceOnce() {
+        IrGraph graph = translate("int main() { int x = 5; int y = x + x; return y * y; }");
+        LivenessAnalysis analysis = new LivenessAnalysis();
+        analysis.analyzeLiveness(graph);
+        Node five = single(graph, ConstIntNode.class);
+        Node add = single(graph, AddNode.class);
+        Node mul = single(graph, MulNode.class);
+        // the edges are still recorded once per use
+        assertEquals(2, graph.successorCount(five));
+        assertEquals(List.of(add), analysis.successors(five));
+        assertEquals(List.of(mul), analysis.successors(add));
+    }
+
+    @Test
+    void listsDifferentSuccessors() {
+        IrGraph graph = translate("int main() { int x = 5; return (x + 1) * (x * 2); }");
+        LivenessAnalysis analysis = new LivenessAnalysis();
+        analysis.analyzeLiveness(graph);
+        Node five = graph.reachableNodes().stream()
+            .filter(node -> node instanceof ConstIntNode c && c.value() == 5)
+            .findFirst()
+            .orElseThrow();
+        List<Node> successors = analysis.successors(five);
+        assertEquals(2, successors.size());
+        assertEquals(AddNode.class, successors.get(0).getClass());
+        assertEquals(MulNode.class, successors.get(1).getClass());
+    }
+}
@@ -0,0 +1,183 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.translate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/// Compares the division by constants with Java's `/` and `%`, both the formula of [MagicDivisor] and the code
+/// emitted by [x86CodeGenerator#divideByConstant], which is run by a small interpreter.
+class MagicDivisorTest {
+    private static final x86Registers.RealRegisters DIVIDEND = x86Registers.RealRegisters.ECX;
+
+    @Test
+    void multiplierAndShiftMatchDivision() {
+        for (int divisor : divisors()) {
+            if (!needsMagic(divisor)) {
+                continue;
+            }
+            MagicDivisor magic = MagicDivisor.of(divisor);
+            for (int dividend : dividends(divisor)) {
+                int quotient = quotient(magic, divisor, dividend);
+                String context = dividend + " / " + divisor;
+                assertEquals(dividend / divisor, quotient, context);
+                assertEquals(dividend % divisor, dividend - quotient * divisor, context);
+            }
+        }
+    }
+
+    @Test
+    void rejectsDivisorsWithoutMagic() {
+        for (int divisor : new int[] {0, 1, -1, 2, -2, 4, -4, 1 << 30, -(1 << 30), Integer.MIN_VALUE}) {
+            assertThrows(IllegalArgumentException.class, () -> MagicDivisor.of(divisor), String.valueOf(divisor));
+        }
+    }
+
+    @Test
+    void emittedCodeMatchesDivision() {
+        for (int divisor : divisors()) {
+            if (divisor == 0 || divisor == -1) {
+                continue;
+            }
+            for (boolean remainder : new boolean[] {false, true}) {
+                StringBuilder builder = new StringBuilder();
+                Register result = x86CodeGenerator.divideByConstant(builder, DIVIDEND, divisor, remainder);
+                String code = builder.toString();
+                assertFalse(code.contains("idiv"), code);
+                for (int dividend : dividends(divisor)) {
+                    int expected = remainder ? dividend % divisor : dividend / divisor;
+                    String context = dividend + (remainder ? " % " : " / ") + divisor + "\n" + code;
+                    assertEquals(expected, run(code, dividend, result), context);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsIdivForZeroAndMinusOne() {
+        for (String operator : new String[] {"/", "%"}) {
+            for (int divisor : new int[] {0, -1, 3, -4}) {
+                IrGraph graph = translate("int main() { int x = 7; return x " + operator + " 3; }");
+                // the constant is set afterwards, as the frontend only has non-negative literals
+                Node division = graph.reachableNodes().stream()
+                    .filter(node -> node instanceof DivNode || node instanceof ModNode)
+                    .findFirst()
+                    .orElseThrow();
+                division.setPredecessor(BinaryOperationNode.RIGHT, new ConstIntNode(graph.startBlock(), divisor));
+                boolean trapping = divisor == 0 || divisor == -1;
+                String context = operator + " " + divisor;
+                assertEquals(!trapping, x86CodeGenerator.takesImmediate(division, BinaryOperationNode.RIGHT), context);
+                assertEquals(trapping, new x86CodeGenerator().generateFunction(graph).contains("idiv"), context);
+            }
+        }
+    }
+
+    private static boolean needsMagic(int divisor) {
+        return Math.abs((long) divisor) >= 3 && Long.bitCount(Math.abs((long) divisor)) != 1;
+    }
+
+    // the formula of chapter 10 of Hacker's Delight, as described on MagicDivisor
+    private static int quotient(MagicDivisor magic, int divisor, int dividend) {
+        int high = (int) (((long) magic.multiplier() * dividend) >> 32);
+        if (divisor > 0 && magic.multiplier() < 0) {
+            high += dividend;
+        } else if (divisor < 0 && magic.multiplier() > 0) {
+            high -= dividend;
+        }
+        high >>= magic.shift();
+        return high + (high >>> 31);
+    }
+
+    /// {@return small divisors of every kind, powers of two and the extremes, and random ones}
+    private static List<Integer> divisors() {
+        List<Integer> divisors = new ArrayList<>();
+        for (int divisor = -300; divisor <= 300; divisor++) {
+            divisors.add(divisor);
+        }
+        for (int k = 9; k < Integer.SIZE; k++) {
+            for (int offset = -1; offset <= 1; offset++) {
+                divisors.add((1 << k) + offset);
+                divisors.add(-(1 << k) + offset);
+            }
+        }
+        divisors.add(Integer.MAX_VALUE);
+        divisors.add(Integer.MIN_VALUE + 1);
+        divisors.add(1_000_000_007);
+        divisors.add(-641);
+        Random random = new Random(24);
+        for (int i = 0; i < 200; i++) {
+            divisors.add(random.nextInt());
+        }
+        return divisors;
+    }
+
+    /// {@return the extremes, multiples of the divisor and their neighbours, and random dividends}
+    private static List<Integer> dividends(int divisor) {
+        List<Integer> dividends = new ArrayList<>(List.of(
+            0, 1, -1, 2, -2, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1
+        ));
+        for (int factor : new int[] {1, -1, 2, -2, 7, -7, Integer.MAX_VALUE / divisor, Integer.MIN_VALUE / divisor}) {
+            int multiple = factor * divisor;
+            for (int offset = -1; offset <= 1; offset++) {
+                dividends.add(multiple + offset);
+            }
+        }
+        Random random = new Random(divisor);
+        for (int i = 0; i < 50; i++) {
+            dividends.add(random.nextInt());
+            dividends.add(random.nextInt(2001) - 1000);
+        }
+        return dividends;
+    }
+
+    /// Runs the emitted instructions, with the dividend in [#DIVIDEND]. {@return the value of `result`}
+    private static int run(String code, int dividend, Register result) {
+        Map<String, Integer> registers = new HashMap<>();
+        registers.put(DIVIDEND.toString(), dividend);
+        for (String line : code.strip().split("\n")) {
+            String[] parts = line.strip().split("[ ,]+");
+            String target = parts[1];
+            switch (parts[0]) {
+                case "mov" -> registers.put(target, value(registers, parts[2]));
+                case "add" -> registers.put(target, registers.get(target) + value(registers, parts[2]));
+                case "sub" -> registers.put(target, registers.get(target) - value(registers, parts[2]));
+                case "shl" -> registers.put(target, registers.get(target) << value(registers, parts[2]));
+                case "sar" -> registers.put(target, registers.get(target) >> value(registers, parts[2]));
+                case "shr" -> registers.put(target, registers.get(target) >>> value(registers, parts[2]));
+                case "neg" -> registers.put(target, -registers.get(target));
+                case "imul" -> {
+                    if (parts.length == 2) {
+                        // edx:eax = eax * operand
+                        long product = (long) registers.get("eax") * value(registers, target);
+                        registers.put("eax", (int) product);
+                        registers.put("edx", (int) (product >> 32));
+                    } else {
+                        registers.put(target, value(registers, parts[2]) * value(registers, parts[3]));
+                    }
+                }
+                default -> throw new IllegalArgumentException("unexpected " + line);
+            }
+        }
+        return registers.get(result.toString());
+    }
+
+    private static int value(Map<String, Integer> registers, String operand) {
+        Integer value = registers.get(operand);
+        return value != null ? value : Integer.parseInt(operand);
+    }
+}
@@ -0,0 +1,105 @@
+package edu.kit.kastel.vads.compiler.ir;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.lexer.Identifier;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/// The language has no control flow yet, so the blocks are built by hand. A block's predecessors are
+/// nodes in the blocks jumping to it, constants stand in for the jumps.
+class GraphConstructorTest {
+    private static final Name X = Name.forIdentifier(new Identifier("x", Span.singleLine(0, 0, 1)));
+
+    @Test
+    void removesPhiOfLoopNotChangingVariable() {
+        GraphConstructor constructor = new GraphConstructor(node -> node, "f", false);
+        IrGraph graph = constructor.graph();
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        constructor.writeVariable(X, graph.startBlock(), one);
+
+        Block header = loopHeader(graph, graph.startBlock());
+        Node read = constructor.readVariable(X, header);
+        Phi phi = assertInstanceOf(Phi.class, read);
+        Node user = new AddNode(header, read, read);
+
+        Block body = new Block(graph);
+        body.addPredecessor(new ConstIntNode(header, 0));
+        constructor.sealBlock(body);
+        header.addPredecessor(new ConstIntNode(body, 0));
+        assertSame(phi, constructor.readVariable(X, body));
+        constructor.sealBlock(header);
+
+        assertEquals(List.of(one, one), user.predecessors());
+        assertSame(one, constructor.readVariable(X, header));
+        assertSame(one, constructor.readVariable(X, body));
+        assertEquals(0, graph.successorCount(phi));
+    }
+
+    @Test
+    void keepsPhiMergingTwoValues() {
+        GraphConstructor constructor = new GraphConstructor(node -> node, "f", false);
+        IrGraph graph = constructor.graph();
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        constructor.writeVariable(X, graph.startBlock(), one);
+
+        Block header = loopHeader(graph, graph.startBlock());
+        Phi phi = assertInstanceOf(Phi.class, constructor.readVariable(X, header));
+        Block body = new Block(graph);
+        body.addPredecessor(new ConstIntNode(header, 0));
+        constructor.sealBlock(body);
+        Node two = new ConstIntNode(body, 2);
+        constructor.writeVariable(X, body, two);
+        header.addPredecessor(new ConstIntNode(body, 0));
+        constructor.sealBlock(header);
+
+        assertEquals(List.of(one, two), phi.predecessors());
+        assertSame(phi, constructor.readVariable(X, header));
+    }
+
+    @Test
+    void rechecksPhisUsingRemovedPhi() {
+        GraphConstructor constructor = new GraphConstructor(node -> node, "f", false);
+        IrGraph graph = constructor.graph();
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Phi outer = new Phi(new Block(graph));
+        Phi inner = new Phi(new Block(graph));
+        // outer merges one and inner, inner only merges outer with itself
+        outer.appendOperand(one);
+        outer.appendOperand(inner);
+        inner.appendOperand(outer);
+        inner.appendOperand(inner);
+        Node user = new AddNode(graph.startBlock(), inner, outer);
+
+        assertSame(outer, constructor.tryRemoveTrivialPhi(inner));
+        // replacing inner left outer with the operands one and itself
+        assertEquals(List.of(one, one), user.predecessors());
+        assertEquals(0, graph.successorCount(inner));
+        assertEquals(0, graph.successorCount(outer));
+    }
+
+    @Test
+    void keepsPhiWithoutOtherOperand() {
+        GraphConstructor constructor = new GraphConstructor(node -> node, "f", false);
+        Phi phi = new Phi(new Block(constructor.graph()));
+        phi.appendOperand(phi);
+        assertSame(phi, constructor.tryRemoveTrivialPhi(phi));
+    }
+
+    /// {@return a new unsealed block entered from `entry`}
+    private static Block loopHeader(IrGraph graph, Block entry) {
+        Block header = new Block(graph);
+        header.addPredecessor(new ConstIntNode(entry, 0));
+        return header;
+    }
+}
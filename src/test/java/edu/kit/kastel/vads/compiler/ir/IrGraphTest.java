@@ -0,0 +1,49 @@
+package edu.kit.kastel.vads.compiler.ir;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IrGraphTest {
+    private static final DebugInfo INFO = new DebugInfo.SourceInfo(Span.singleLine(1, 2, 3));
+
+    @Test
+    void attachesCurrentDebugInfo() {
+        IrGraph graph = new IrGraph("f");
+        Node before = new ConstIntNode(graph.startBlock(), 1);
+        graph.setCurrentDebugInfo(INFO);
+        Node during = new AddNode(graph.startBlock(), before, before);
+        graph.setCurrentDebugInfo(DebugInfo.NoInfo.INSTANCE);
+        Node after = new ConstIntNode(graph.startBlock(), 2);
+
+        assertEquals(DebugInfo.NoInfo.INSTANCE, before.debugInfo());
+        assertEquals(INFO, during.debugInfo());
+        assertEquals(DebugInfo.NoInfo.INSTANCE, after.debugInfo());
+        assertEquals(DebugInfo.NoInfo.INSTANCE, graph.startBlock().debugInfo());
+    }
+
+    @Test
+    void attachesDebugInfoBeyondInitialCapacity() {
+        IrGraph graph = new IrGraph("f");
+        graph.setCurrentDebugInfo(INFO);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(INFO, new ConstIntNode(graph.startBlock(), i).debugInfo());
+        }
+    }
+
+    @Test
+    void dropsDebugInfoIfNotKept() {
+        IrGraph graph = new IrGraph("f", false);
+        assertFalse(graph.keepsDebugInfo());
+        graph.setCurrentDebugInfo(INFO);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(DebugInfo.NoInfo.INSTANCE, new ConstIntNode(graph.startBlock(), i).debugInfo());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package edu.kit.kastel.vads.compiler.ir;
+
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// Builds graphs from source texts and looks up their nodes, for the tests of the IR and the backend.
+public final class IrTestSupport {
+    private IrTestSupport() {
+
+    }
+
+    /// {@return the graph of the single function in `source`, without optimizations}
+    public static IrGraph translate(String source) {
+        return translate(source, node -> node);
+    }
+
+    /// {@return the graph of the single function in `source`, built with the given optimizer}
+    public static IrGraph translate(String source, Optimizer optimizer) {
+        FunctionTree function = new Parser(new TokenSource(Lexer.forString(source))).parseProgram()
+            .topLevelTrees().getFirst();
+        return new SsaTranslation(function, optimizer).translate();
+    }
+
+    /// {@return the only reachable node of the given type}
+    public static Node single(IrGraph graph, Class<? extends Node> type) {
+        List<Node> nodes = graph.reachableNodes().stream().filter(type::isInstance).toList();
+        assertEquals(1, nodes.size(), type.getSimpleName());
+        return nodes.getFirst();
+    }
+
+    /// {@return the number of reachable nodes of the given type}
+    public static long count(IrGraph graph, Class<? extends Node> type) {
+        return graph.reachableNodes().stream().filter(type::isInstance).count();
+    }
+}
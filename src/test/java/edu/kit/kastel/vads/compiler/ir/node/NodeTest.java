@@ -0,0 +1,64 @@
+package edu.kit.kastel.vads.compiler.ir.node;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NodeTest {
+
+    @Test
+    void predecessorViewIsReadOnly() {
+        IrGraph graph = new IrGraph("f");
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Node add = new AddNode(graph.startBlock(), one, one);
+        @SuppressWarnings("unchecked")
+        List<Node> view = (List<Node>) add.predecessors();
+        assertThrows(UnsupportedOperationException.class, () -> view.add(one));
+        assertThrows(UnsupportedOperationException.class, () -> view.set(0, one));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+        assertEquals(List.of(one, one), add.predecessors());
+    }
+
+    @Test
+    void predecessorViewReflectsChanges() {
+        IrGraph graph = new IrGraph("f");
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Node two = new ConstIntNode(graph.startBlock(), 2);
+        Node add = new AddNode(graph.startBlock(), one, one);
+        List<? extends Node> view = add.predecessors();
+        assertSame(view, add.predecessors());
+
+        add.setPredecessor(BinaryOperationNode.RIGHT, two);
+        assertEquals(List.of(one, two), view);
+        assertEquals(1, graph.successorCount(one));
+        assertEquals(List.of(add), graph.successors(two));
+
+        Phi phi = new Phi(graph.startBlock());
+        List<? extends Node> phiView = phi.predecessors();
+        phi.addPredecessor(one);
+        phi.addPredecessor(add);
+        assertEquals(List.of(one, add), phiView);
+    }
+
+    @Test
+    void indexedAccessMatchesView() {
+        IrGraph graph = new IrGraph("f");
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Node two = new ConstIntNode(graph.startBlock(), 2);
+        Node sub = new SubNode(graph.startBlock(), two, one);
+        assertEquals(0, one.predecessorCount());
+        assertEquals(sub.predecessors().size(), sub.predecessorCount());
+        for (int i = 0; i < sub.predecessorCount(); i++) {
+            assertSame(sub.predecessors().get(i), sub.predecessor(i));
+        }
+        assertSame(two, sub.predecessor(BinaryOperationNode.LEFT));
+        assertSame(one, sub.predecessor(BinaryOperationNode.RIGHT));
+        assertThrows(IndexOutOfBoundsException.class, () -> sub.predecessor(2));
+    }
+}
@@ -0,0 +1,172 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.IntUnaryOperator;
+
+import static edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode.LEFT;
+import static edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode.RIGHT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/// Simplifies expressions of an unknown value `x`, and compares the results with Java's `int` arithmetic,
+/// which wraps around on overflow like the generated code.
+class AlgebraicSimplificationTest {
+    private static final int[] VALUES = {
+        0, 1, -1, 2, -2, 3, 7, 100, -12345, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1, 1 << 30,
+    };
+
+    @Test
+    void keepsValuesOfSimplifiedExpressions() {
+        for (int c : constants()) {
+            for (int d : new int[] {0, 1, -1, 3, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+                check(x -> x * c, (g, x) -> new MulNode(block(g), x, constant(g, c)));
+                check(x -> c * x, (g, x) -> new MulNode(block(g), constant(g, c), x));
+                check(x -> x + c, (g, x) -> new AddNode(block(g), x, constant(g, c)));
+                check(x -> c + x, (g, x) -> new AddNode(block(g), constant(g, c), x));
+                check(x -> x - c, (g, x) -> new SubNode(block(g), x, constant(g, c)));
+                check(x -> c - x, (g, x) -> new SubNode(block(g), constant(g, c), x));
+                check(x -> x * c * d, (g, x) -> new MulNode(block(g), new MulNode(block(g), x, constant(g, c)),
+                    constant(g, d)));
+                check(x -> x + c + d, (g, x) -> new AddNode(block(g), new AddNode(block(g), x, constant(g, c)),
+                    constant(g, d)));
+                check(x -> x - c - d, (g, x) -> new SubNode(block(g), new SubNode(block(g), x, constant(g, c)),
+                    constant(g, d)));
+            }
+        }
+        check(x -> x - x, (g, x) -> new SubNode(block(g), x, x));
+        check(x -> -(-x), (g, x) -> new SubNode(block(g), constant(g, 0),
+            new SubNode(block(g), constant(g, 0), x)));
+    }
+
+    @Test
+    void reducesMultiplicationsByPowersOfTwo() {
+        for (int k = 0; k < Integer.SIZE; k++) {
+            int c = 1 << k;
+            Node result = simplify((g, x) -> new MulNode(block(g), x, constant(g, c)));
+            if (k == 0) {
+                assertInstanceOf(Phi.class, result);
+                continue;
+            }
+            // includes MIN_VALUE, which is 2^31
+            ShlNode shl = assertInstanceOf(ShlNode.class, result, "x * " + c);
+            assertEquals(k, ((ConstIntNode) shl.predecessor(RIGHT)).value());
+        }
+    }
+
+    @Test
+    void reducesMultiplicationsNextToPowersOfTwo() {
+        // up to k = 31, where 2^k + 1 is MIN_VALUE + 1 and 2^k - 1 is MAX_VALUE
+        for (int k = 1; k < Integer.SIZE; k++) {
+            int plusOne = (1 << k) + 1;
+            Node add = simplify((g, x) -> new MulNode(block(g), x, constant(g, plusOne)));
+            assertInstanceOf(ShlNode.class, assertInstanceOf(AddNode.class, add, "x * " + plusOne).predecessor(LEFT));
+        }
+        // 3 is 2^1 + 1 already
+        for (int k = 3; k < Integer.SIZE; k++) {
+            int minusOne = (1 << k) - 1;
+            Node sub = simplify((g, x) -> new MulNode(block(g), x, constant(g, minusOne)));
+            assertInstanceOf(ShlNode.class, assertInstanceOf(SubNode.class, sub, "x * " + minusOne).predecessor(LEFT));
+        }
+        assertInstanceOf(MulNode.class, simplify((g, x) -> new MulNode(block(g), x, constant(g, 6))));
+        assertInstanceOf(MulNode.class, simplify((g, x) -> new MulNode(block(g), x, constant(g, 1000))));
+    }
+
+    @Test
+    void appliesIdentities() {
+        assertInstanceOf(Phi.class, simplify((g, x) -> new AddNode(block(g), constant(g, 0), x)));
+        assertInstanceOf(Phi.class, simplify((g, x) -> new SubNode(block(g), x, constant(g, 0))));
+        assertInstanceOf(Phi.class, simplify((g, x) -> new MulNode(block(g), constant(g, 1), x)));
+        Node zero = simplify((g, x) -> new MulNode(block(g), x, constant(g, 0)));
+        assertEquals(0, assertInstanceOf(ConstIntNode.class, zero).value());
+        Node difference = simplify((g, x) -> new SubNode(block(g), x, x));
+        assertEquals(0, assertInstanceOf(ConstIntNode.class, difference).value());
+        // x - c is turned into an addition, so constants are combined in a single shape
+        AddNode add = assertInstanceOf(AddNode.class, simplify((g, x) -> new SubNode(block(g),
+            new AddNode(block(g), x, constant(g, 5)), constant(g, 7))));
+        assertEquals(-2, ((ConstIntNode) add.predecessor(RIGHT)).value());
+        assertInstanceOf(Phi.class, add.predecessor(LEFT));
+    }
+
+    @Test
+    void keepsShapeOfUnchangedNodes() {
+        IrGraph graph = new IrGraph("f");
+        Node x = new Phi(graph.startBlock());
+        Node mul = new MulNode(graph.startBlock(), x, constant(graph, 6));
+        assertSame(mul, new AlgebraicSimplification().transform(mul));
+        Node both = new AddNode(graph.startBlock(), constant(graph, 1), constant(graph, 2));
+        assertSame(both, new AlgebraicSimplification().transform(both));
+    }
+
+    private static List<Integer> constants() {
+        List<Integer> constants = new ArrayList<>();
+        for (int value : VALUES) {
+            constants.add(value);
+        }
+        for (int k = 0; k < Integer.SIZE; k++) {
+            constants.add(1 << k);
+            constants.add((1 << k) + 1);
+            constants.add((1 << k) - 1);
+            constants.add(-(1 << k));
+        }
+        Random random = new Random(23);
+        for (int i = 0; i < 20; i++) {
+            constants.add(random.nextInt());
+        }
+        return constants;
+    }
+
+    private static void check(IntUnaryOperator expected, BiFunction<IrGraph, Node, Node> expression) {
+        Node result = simplify(expression);
+        for (int x : VALUES) {
+            assertEquals(expected.applyAsInt(x), evaluate(result, x), () -> "x = " + x + " in " + result);
+        }
+    }
+
+    /// Runs the simplification on the expression until nothing changes anymore. {@return the simplified one}
+    private static Node simplify(BiFunction<IrGraph, Node, Node> expression) {
+        IrGraph graph = new IrGraph("f");
+        Node x = new Phi(graph.startBlock());
+        Node start = new StartNode(graph.startBlock());
+        ReturnNode ret = new ReturnNode(graph.startBlock(), start, expression.apply(graph, x));
+        graph.endBlock().addPredecessor(ret);
+        new OptimizationPipeline().add(new AlgebraicSimplification()).run(graph);
+        return ret.predecessor(ReturnNode.RESULT);
+    }
+
+    private static int evaluate(Node node, int x) {
+        return switch (node) {
+            case Phi _ -> x;
+            case ConstIntNode c -> c.value();
+            case AddNode add -> evaluate(add.predecessor(LEFT), x) + evaluate(add.predecessor(RIGHT), x);
+            case SubNode sub -> evaluate(sub.predecessor(LEFT), x) - evaluate(sub.predecessor(RIGHT), x);
+            case MulNode mul -> evaluate(mul.predecessor(LEFT), x) * evaluate(mul.predecessor(RIGHT), x);
+            case ShlNode shl -> evaluate(shl.predecessor(LEFT), x) << evaluate(shl.predecessor(RIGHT), x);
+            default -> throw new IllegalArgumentException("unexpected " + node);
+        };
+    }
+
+    private static Block block(IrGraph graph) {
+        return graph.startBlock();
+    }
+
+    private static Node constant(IrGraph graph, int value) {
+        return new ConstIntNode(graph.startBlock(), value);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.translate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadCodeEliminationTest {
+
+    @Test
+    void removesUnusedValues() {
+        IrGraph graph = translate("int main() { int x = 3; int y = x * 4; return x + 1; }");
+        Node mul = nodes(graph).stream().filter(MulNode.class::isInstance).findFirst().orElseThrow();
+        Node four = mul.predecessor(MulNode.RIGHT);
+        int before = nodes(graph).size();
+        int removed = DeadCodeElimination.eliminate(graph);
+        // the multiplication and its constant, x is still used by the addition
+        assertEquals(2, removed);
+        assertEquals(before - removed, nodes(graph).size());
+        assertNull(graph.node(mul.id()));
+        assertNull(graph.node(four.id()));
+        assertLiveOnly(graph);
+        assertEquals(0, DeadCodeElimination.eliminate(graph));
+    }
+
+    @Test
+    void keepsUnusedValuesWithSideEffect() {
+        IrGraph graph = translate("int main() { int x = 1 / 0; int y = 2 / 0; return 3; }");
+        DeadCodeElimination.eliminate(graph);
+        // the divisions may trap, so they are kept although nothing uses their values
+        assertEquals(2, nodes(graph).stream().filter(DivNode.class::isInstance).count());
+        assertLiveOnly(graph);
+    }
+
+    @Test
+    void removesNodesLeftOverByOptimizations() {
+        IrGraph graph = translate("int main() { int x = 3; int y = x * 4 + 4 * x; x = y / 5 % 7; return y - x * 2; }");
+        new OptimizationPipeline()
+            .add(new ConstantFolding())
+            .add(new AlgebraicSimplification())
+            .add(new GlobalValueNumbering())
+            .run(graph);
+        int before = nodes(graph).size();
+        int removed = DeadCodeElimination.eliminate(graph);
+        assertTrue(removed > 0);
+        assertEquals(before - removed, nodes(graph).size());
+        assertLiveOnly(graph);
+    }
+
+    /// Asserts that the remaining nodes are the reachable ones and their blocks, and are only used by each other.
+    private static void assertLiveOnly(IrGraph graph) {
+        Set<Node> live = new HashSet<>(graph.reachableNodes());
+        for (Node node : graph.reachableNodes()) {
+            live.add(node.block());
+        }
+        live.add(graph.endBlock());
+        Set<Node> remaining = new HashSet<>(nodes(graph));
+        assertEquals(live, remaining);
+        for (Node node : remaining) {
+            for (Node successor : graph.successors(node)) {
+                assertTrue(remaining.contains(successor), node + " used by removed " + successor);
+            }
+            if (!(node instanceof Block)) {
+                assertTrue(remaining.contains(node.block()));
+            }
+        }
+    }
+
+    private static List<Node> nodes(IrGraph graph) {
+        List<Node> nodes = new ArrayList<>();
+        for (int id = 0; id < graph.nodeCount(); id++) {
+            Node node = graph.node(id);
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,117 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import org.junit.jupiter.api.Test;
+
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.count;
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.translate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GlobalValueNumberingTest {
+
+    @Test
+    void mergesEqualConstants() {
+        IrGraph graph = new IrGraph("f");
+        GlobalValueNumbering gvn = new GlobalValueNumbering();
+        Node one = gvn.transform(new ConstIntNode(graph.startBlock(), 1));
+        assertSame(one, gvn.transform(new ConstIntNode(graph.startBlock(), 1)));
+        Node two = new ConstIntNode(graph.startBlock(), 2);
+        assertSame(two, gvn.transform(two));
+    }
+
+    @Test
+    void ordersOperandsOfCommutativeOperations() {
+        IrGraph graph = new IrGraph("f");
+        Block block = graph.startBlock();
+        GlobalValueNumbering gvn = new GlobalValueNumbering();
+        Node x = gvn.transform(new ConstIntNode(block, 1));
+        Node y = gvn.transform(new ConstIntNode(block, 2));
+        Node add = gvn.transform(new AddNode(block, x, y));
+        assertSame(add, gvn.transform(new AddNode(block, y, x)));
+        Node mul = gvn.transform(new MulNode(block, x, y));
+        assertSame(mul, gvn.transform(new MulNode(block, y, x)));
+        // neither the kind nor the order of a subtraction may be mixed up
+        Node sub = gvn.transform(new SubNode(block, x, y));
+        Node reversed = new SubNode(block, y, x);
+        assertSame(reversed, gvn.transform(reversed));
+        assertSame(sub, gvn.transform(new SubNode(block, x, y)));
+    }
+
+    @Test
+    void mergesDivisionsOnlyWithSameSideEffect() {
+        IrGraph graph = new IrGraph("f");
+        Block block = graph.startBlock();
+        GlobalValueNumbering gvn = new GlobalValueNumbering();
+        Node x = gvn.transform(new ConstIntNode(block, 7));
+        Node y = gvn.transform(new ConstIntNode(block, 3));
+        Node first = new StartNode(block);
+        Node second = new StartNode(block);
+        Node div = gvn.transform(new DivNode(block, x, y, first));
+        assertSame(div, gvn.transform(new DivNode(block, x, y, first)));
+        Node later = new DivNode(block, x, y, second);
+        assertSame(later, gvn.transform(later));
+        // a remainder is another value than the quotient
+        Node mod = new ModNode(block, x, y, first);
+        assertSame(mod, gvn.transform(mod));
+    }
+
+    @Test
+    void reusesNodesOfStartBlock() {
+        IrGraph graph = new IrGraph("f");
+        GlobalValueNumbering gvn = new GlobalValueNumbering();
+        Node start = gvn.transform(new ConstIntNode(graph.startBlock(), 1));
+        assertSame(start, gvn.transform(new ConstIntNode(graph.endBlock(), 1)));
+        // the end block doesn't dominate the start block
+        Node end = gvn.transform(new ConstIntNode(graph.endBlock(), 2));
+        Node other = new ConstIntNode(graph.startBlock(), 2);
+        assertSame(other, gvn.transform(other));
+        assertSame(end, gvn.transform(new ConstIntNode(graph.endBlock(), 2)));
+    }
+
+    @Test
+    void forgetsValueOfNodeWithReplacedInput() {
+        IrGraph graph = new IrGraph("f");
+        Block block = graph.startBlock();
+        GlobalValueNumbering gvn = new GlobalValueNumbering();
+        Node x = gvn.transform(new ConstIntNode(block, 1));
+        Node y = gvn.transform(new ConstIntNode(block, 2));
+        Node z = gvn.transform(new ConstIntNode(block, 3));
+        Node add = gvn.transform(new AddNode(block, x, y));
+        // like the pipeline does when it replaces an input, the node is visited again afterwards
+        add.setPredecessor(AddNode.RIGHT, z);
+        assertSame(add, gvn.transform(add));
+        Node fresh = new AddNode(block, x, y);
+        assertSame(fresh, gvn.transform(fresh));
+        assertSame(add, gvn.transform(new AddNode(block, x, z)));
+    }
+
+    @Test
+    void keepsNodesWithoutValue() {
+        IrGraph graph = new IrGraph("f");
+        GlobalValueNumbering gvn = new GlobalValueNumbering();
+        Node phi = new Phi(graph.startBlock());
+        assertSame(phi, gvn.transform(phi));
+        assertSame(phi, gvn.transform(phi));
+    }
+
+    @Test
+    void removesCommonSubexpressionsDuringConstruction() {
+        String source = "int main() { int x = 3; int y = 4; return (x * y + y * x) - (x * y + y * x) / 2; }";
+        IrGraph graph = translate(source, new GlobalValueNumbering());
+        assertEquals(1, count(graph, MulNode.class));
+        assertEquals(1, count(graph, AddNode.class));
+        assertEquals(1, count(graph, DivNode.class));
+        assertEquals(1, count(graph, SubNode.class));
+    }
+}
@@ -0,0 +1,85 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.count;
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.single;
+import static edu.kit.kastel.vads.compiler.ir.IrTestSupport.translate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimizationPipelineTest {
+
+    @Test
+    void foldsUntilNothingChanges() {
+        IrGraph graph = translate("int main() { int x = 3; int y = x * 4 + 4 * x; x = y / 5 % 7; return y - x * 2; }");
+        pipeline().run(graph);
+        // y = 24, x = 24 / 5 % 7 = 4
+        assertEquals(16, returnedConstant(graph));
+        assertEquals(0, count(graph, BinaryOperationNode.class));
+    }
+
+    @Test
+    void rewiresSideEffectOfFoldedDivision() {
+        IrGraph graph = translate("int main() { int x = 7 / 2; return x % 0; }");
+        pipeline().run(graph);
+        // the division is folded, the remainder by zero must stay and now depends on the start
+        assertEquals(0, count(graph, DivNode.class));
+        ModNode mod = assertInstanceOf(ModNode.class, single(graph, ModNode.class));
+        assertInstanceOf(StartNode.class, mod.predecessor(ModNode.SIDE_EFFECT).predecessor(0));
+        ReturnNode ret = (ReturnNode) single(graph, ReturnNode.class);
+        ProjNode sideEffect = assertInstanceOf(ProjNode.class, ret.predecessor(ReturnNode.SIDE_EFFECT));
+        assertSame(mod, sideEffect.predecessor(0));
+    }
+
+    @Test
+    void numbersValuesCreatedByFolding() {
+        // both divisions by zero remain, but after folding their operands are the same constants
+        IrGraph graph = translate("int main() { int a = (1 + 1) / 0; int b = 2 / (0 * 5); return a + b; }");
+        pipeline().run(graph);
+        List<Node> constants = graph.reachableNodes().stream().filter(ConstIntNode.class::isInstance).toList();
+        assertEquals(2, constants.size(), constants.toString());
+        assertEquals(2, count(graph, DivNode.class));
+    }
+
+    @Test
+    void reportsStatistics() {
+        IrGraph graph = translate("int main() { return 1 + 2; }");
+        OptimizationPipeline pipeline = pipeline();
+        pipeline.run(graph);
+        assertTrue(pipeline.iterations() > 0);
+        List<OptimizationPipeline.PassStatistics> statistics = pipeline.statistics();
+        assertEquals(
+            List.of("ConstantFolding", "AlgebraicSimplification", "GlobalValueNumbering"),
+            statistics.stream().map(OptimizationPipeline.PassStatistics::name).toList()
+        );
+        assertEquals(1, statistics.getFirst().replacements());
+        // the later passes only see the nodes the earlier ones didn't replace
+        assertTrue(statistics.get(1).visits() < statistics.getFirst().visits());
+    }
+
+    private static OptimizationPipeline pipeline() {
+        return new OptimizationPipeline()
+            .add(new ConstantFolding())
+            .add(new AlgebraicSimplification())
+            .add(new GlobalValueNumbering());
+    }
+
+    private static int returnedConstant(IrGraph graph) {
+        ReturnNode ret = (ReturnNode) single(graph, ReturnNode.class);
+        return assertInstanceOf(ConstIntNode.class, ret.predecessor(ReturnNode.RESULT)).value();
+    }
+}
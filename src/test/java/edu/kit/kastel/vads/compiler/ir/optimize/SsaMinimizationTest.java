@@ -0,0 +1,86 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// None of the phis here is trivial on its own, only the sets of them are redundant.
+class SsaMinimizationTest {
+
+    @Test
+    void replacesComponentWithSingleOuterOperand() {
+        IrGraph graph = new IrGraph("f");
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Phi first = phi(graph);
+        Phi second = phi(graph);
+        Phi third = phi(graph);
+        operands(first, one, second);
+        operands(second, first, third);
+        operands(third, second, one);
+        Node add = returned(graph, new AddNode(graph.startBlock(), second, third));
+
+        assertEquals(3, SsaMinimization.minimize(graph));
+        assertEquals(List.of(one, one), add.predecessors());
+    }
+
+    @Test
+    void replacesInnerComponent() {
+        IrGraph graph = new IrGraph("f");
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Node two = new ConstIntNode(graph.startBlock(), 2);
+        Phi outer = phi(graph);
+        Phi second = phi(graph);
+        Phi third = phi(graph);
+        // the whole component merges one and two, but second and third only pass on outer
+        operands(outer, one, two, second);
+        operands(second, outer, third);
+        operands(third, second, second);
+        Node add = returned(graph, new AddNode(graph.startBlock(), second, third));
+
+        assertEquals(2, SsaMinimization.minimize(graph));
+        assertEquals(List.of(outer, outer), add.predecessors());
+        assertEquals(List.of(one, two, outer), outer.predecessors());
+    }
+
+    @Test
+    void keepsPhisMergingValues() {
+        IrGraph graph = new IrGraph("f");
+        Node one = new ConstIntNode(graph.startBlock(), 1);
+        Node two = new ConstIntNode(graph.startBlock(), 2);
+        Phi first = phi(graph);
+        Phi second = phi(graph);
+        operands(first, one, second);
+        operands(second, first, two);
+        Node add = returned(graph, new AddNode(graph.startBlock(), first, second));
+
+        assertEquals(0, SsaMinimization.minimize(graph));
+        assertEquals(List.of(first, second), add.predecessors());
+    }
+
+    private static Phi phi(IrGraph graph) {
+        return new Phi(new Block(graph));
+    }
+
+    private static void operands(Phi phi, Node... operands) {
+        for (Node operand : operands) {
+            phi.appendOperand(operand);
+        }
+    }
+
+    /// Makes the node reachable from the end block. {@return the node}
+    private static Node returned(IrGraph graph, Node node) {
+        Node start = new StartNode(graph.startBlock());
+        graph.endBlock().addPredecessor(new ReturnNode(graph.startBlock(), start, node));
+        return node;
+    }
+}
@@ -0,0 +1,110 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// Compares the word-at-a-time comment skipping of [AsciiCharSequence] with a character by character scan.
+class CommentSkippingTest {
+    private static final char[][] TARGETS = {{'\n', '\r', '/', '*'}, {'\n', '\r', '\n', '\r'}};
+
+    @Test
+    void findsTargetAtEveryAlignment() {
+        for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (char[] targets : TARGETS) {
+                for (char target : targets) {
+                    for (int at = 0; at < 3 * Long.BYTES; at++) {
+                        byte[] bytes = new byte[4 * Long.BYTES];
+                        Arrays.fill(bytes, (byte) 'a');
+                        bytes[at] = (byte) target;
+                        for (int from = 0; from <= at; from++) {
+                            assertIndexOfAny(bytes, order, 0, from, bytes.length, targets);
+                            assertIndexOfAny(bytes, order, 0, from, at, targets);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesScalarScanOnRandomBytes() {
+        Random random = new Random(6);
+        byte[] alphabet = "ab /*\n\r\t".getBytes(StandardCharsets.US_ASCII);
+        for (int round = 0; round < 2000; round++) {
+            byte[] bytes = new byte[random.nextInt(40)];
+            for (int i = 0; i < bytes.length; i++) {
+                // a third of the bytes are not ASCII, including the ones that look like targets in the low bits
+                bytes[i] = random.nextInt(3) == 0
+                    ? (byte) (0x80 | random.nextInt(0x80))
+                    : alphabet[random.nextInt(alphabet.length)];
+            }
+            ByteOrder order = random.nextBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            int offset = bytes.length == 0 ? 0 : random.nextInt(Math.min(bytes.length, Long.BYTES) + 1);
+            int length = bytes.length - offset;
+            for (int from = 0; from <= length; from++) {
+                for (char[] targets : TARGETS) {
+                    assertIndexOfAny(bytes, order, offset, from, length, targets);
+                }
+            }
+        }
+    }
+
+    @Test
+    void lexesCommentsLikeScalarScan() {
+        Random random = new Random(60);
+        String[] pieces = {"/*", "*/", "//", "/", "*", "\n", "\r\n", " ", "x", "1", ";", "é", "ÿ", "\u0080"};
+        for (int round = 0; round < 5000; round++) {
+            StringBuilder source = new StringBuilder();
+            // shifts the comments through every alignment within a word
+            source.repeat(' ', round % Long.BYTES);
+            int count = random.nextInt(30);
+            for (int i = 0; i < count; i++) {
+                source.append(pieces[random.nextInt(pieces.length)]);
+            }
+            assertLexesLikeScalar(source.toString());
+        }
+    }
+
+    @Test
+    void endsInsideComment() {
+        for (int padding = 0; padding < 2 * Long.BYTES; padding++) {
+            String text = "x".repeat(padding);
+            assertLexesLikeScalar("int /* " + text);
+            assertLexesLikeScalar("int /* /* " + text + " */ " + text);
+            assertLexesLikeScalar("int // " + text);
+            assertLexesLikeScalar("/*" + text + "*");
+            assertLexesLikeScalar("/*" + text + "/");
+        }
+    }
+
+    // a String source takes the character by character path of the lexer, the ASCII view the bulk one
+    private static void assertLexesLikeScalar(String source) {
+        ByteBuffer bytes = ByteBuffer.wrap(source.getBytes(StandardCharsets.ISO_8859_1));
+        assertEquals(
+            LexerInputTest.tokens(Lexer.forString(source)),
+            LexerInputTest.tokens(Lexer.forCharSequence(new AsciiCharSequence(bytes))),
+            source
+        );
+    }
+
+    private static void assertIndexOfAny(byte[] bytes, ByteOrder order, int offset, int from, int to, char[] t) {
+        AsciiCharSequence chars = (AsciiCharSequence) new AsciiCharSequence(ByteBuffer.wrap(bytes).order(order))
+            .subSequence(offset, bytes.length);
+        int expected = to;
+        for (int i = from; i < to; i++) {
+            char c = chars.charAt(i);
+            if (c == t[0] || c == t[1] || c == t[2] || c == t[3]) {
+                expected = i;
+                break;
+            }
+        }
+        assertEquals(expected, chars.indexOfAny(from, to, t[0], t[1], t[2], t[3]));
+    }
+}
@@ -0,0 +1,93 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/// Compares the tokens of an [IncrementalLexer] after each edit with lexing the edited source from scratch.
+class IncrementalLexerTest {
+    private static final String SOURCE = """
+        int main() {
+            int x = 0x1F; // the start
+            int y = x * 3;
+            /* a /* nested */
+               comment */
+            y += x - 7;
+            return x % y;
+        }
+        """;
+    private static final String[] INSERTIONS = {
+        "", "x", "y1", "int", "in", "t", "0", "12", "0x", "+", "=", "-=", ";", "(", ")", "{", "}",
+        " ", "\n", "\r\n", "//", "/*", "*/", "/", "*", "x = 1;\n", "\n/* */\n",
+    };
+
+    @Test
+    void randomEditsLexLikeFullSource() {
+        Random random = new Random(9);
+        for (int round = 0; round < 50; round++) {
+            IncrementalLexer lexer = new IncrementalLexer(SOURCE);
+            StringBuilder expected = new StringBuilder(SOURCE);
+            for (int step = 0; step < 40; step++) {
+                int offset = random.nextInt(expected.length() + 1);
+                int removed = random.nextInt(Math.min(4, expected.length() - offset) + 1);
+                String inserted = INSERTIONS[random.nextInt(INSERTIONS.length)];
+                lexer.edit(offset, removed, inserted);
+                expected.replace(offset, offset + removed, inserted);
+                assertEquals(expected.toString(), lexer.source().toString());
+                assertLexesLike(expected.toString(), lexer);
+            }
+        }
+    }
+
+    @Test
+    void keepsTokensOutsideTheDamage() {
+        IncrementalLexer lexer = new IncrementalLexer(SOURCE);
+        List<Token> before = List.copyOf(lexer.tokens());
+        int offset = SOURCE.indexOf("3;");
+        IncrementalLexer.Damage damage = lexer.edit(offset, 1, "42");
+        assertLexesLike(SOURCE.replace("x * 3", "x * 42"), lexer);
+        assertEquals(damage.oldEnd(), damage.newEnd());
+        // the literal and the ";" it moved to the right, the token before the edit comes out the same
+        assertEquals(2, damage.newEnd() - damage.from(), damage.toString());
+        assertEquals(damage.from() + 1, damage.movedFrom(), damage.toString());
+        assertEquals(new IncrementalLexer.Move(2, 0, 1), damage.move());
+        for (int i = 0; i < damage.from(); i++) {
+            assertSame(before.get(i), lexer.tokens().get(i));
+        }
+        for (int i = damage.newEnd(); i < before.size(); i++) {
+            assertSame(before.get(i), lexer.tokens().get(i));
+        }
+    }
+
+    @Test
+    void editsInsideUnterminatedComment() {
+        IncrementalLexer lexer = new IncrementalLexer("int x; /* open\n");
+        lexer.edit(lexer.source().length(), 0, "still open");
+        assertLexesLike("int x; /* open\nstill open", lexer);
+        lexer.edit(lexer.source().length(), 0, " */ y");
+        assertLexesLike("int x; /* open\nstill open */ y", lexer);
+    }
+
+    // the table of the incremental lexer keeps identifiers that were edited away, so only names are compared
+    private static void assertLexesLike(String source, IncrementalLexer lexer) {
+        List<Token> expected = LexerInputTest.tokens(Lexer.forString(source));
+        List<Token> actual = lexer.tokens();
+        assertEquals(expected.size(), actual.size(), source);
+        for (int i = 0; i < expected.size(); i++) {
+            Token token = actual.get(i);
+            if (token instanceof Identifier identifier) {
+                assertEquals(identifier.value(), lexer.symbols().name(identifier.symbol()), source);
+                token = new Identifier(identifier.value(), -1, identifier.span());
+            }
+            Token other = expected.get(i);
+            if (other instanceof Identifier identifier) {
+                other = new Identifier(identifier.value(), -1, identifier.span());
+            }
+            assertEquals(other, token, source);
+        }
+    }
+}
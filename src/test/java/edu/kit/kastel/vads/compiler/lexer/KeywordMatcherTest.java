@@ -0,0 +1,69 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeywordMatcherTest {
+
+    @Test
+    void matchesEveryKeyword() {
+        for (KeywordType type : KeywordType.values()) {
+            String keyword = type.keyword();
+            assertEquals(type, KeywordMatcher.match(keyword, 0, keyword.length()), keyword);
+        }
+    }
+
+    @Test
+    void matchesInsideLargerSource() {
+        for (KeywordType type : KeywordType.values()) {
+            String source = "a + " + type.keyword() + ";";
+            assertEquals(type, KeywordMatcher.match(source, 4, type.keyword().length()), source);
+        }
+    }
+
+    @Test
+    void rejectsNearMisses() {
+        for (KeywordType type : KeywordType.values()) {
+            String keyword = type.keyword();
+            String longer = keyword + "x";
+            assertNull(KeywordMatcher.match(longer, 0, longer.length()), longer);
+            assertNull(KeywordMatcher.match(keyword, 0, keyword.length() - 1), keyword + " prefix");
+            String lastChanged = keyword.substring(0, keyword.length() - 1) + "_";
+            assertNull(KeywordMatcher.match(lastChanged, 0, lastChanged.length()), lastChanged);
+            String upper = keyword.toUpperCase();
+            if (!upper.equals(keyword)) {
+                assertNull(KeywordMatcher.match(upper, 0, upper.length()), upper);
+            }
+        }
+    }
+
+    @Test
+    void rejectsNonAsciiAndOverlongCandidates() {
+        assertNull(KeywordMatcher.match("ént", 0, 3));
+        String overlong = "alloc_array_alloc_array";
+        assertNull(KeywordMatcher.match(overlong, 0, overlong.length()));
+    }
+
+    @Test
+    void lexerInternsOnlyNonKeywords() {
+        Lexer lexer = Lexer.forString("int intx return _return NULL null");
+        List<Token> tokens = new ArrayList<>();
+        for (Optional<Token> token = lexer.nextToken(); token.isPresent(); token = lexer.nextToken()) {
+            tokens.add(token.get());
+        }
+        assertEquals(new Keyword(KeywordType.INT, tokens.get(0).span()), tokens.get(0));
+        assertInstanceOf(Identifier.class, tokens.get(1));
+        assertEquals(new Keyword(KeywordType.RETURN, tokens.get(2).span()), tokens.get(2));
+        assertInstanceOf(Identifier.class, tokens.get(3));
+        assertEquals(new Keyword(KeywordType.NULL, tokens.get(4).span()), tokens.get(4));
+        assertInstanceOf(Identifier.class, tokens.get(5));
+        assertEquals(3, lexer.symbols().size());
+    }
+}
@@ -0,0 +1,66 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LexerInputTest {
+    private static final String SOURCE = """
+        int main() {
+            // a line comment with / and * in it
+            int x = 0x1F; /* a /* nested */ comment */
+            x += 2147483648;
+            int y_1 = x % 7 - -x;
+            return 007 + $ + 0x;
+        }
+        /* unterminated""";
+
+    @Test
+    void mappedFileLexesLikeString(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("input.l1");
+        Files.writeString(file, SOURCE, StandardCharsets.US_ASCII);
+        assertEquals(tokens(Lexer.forString(SOURCE)), tokens(Lexer.forFile(file)));
+    }
+
+    @Test
+    void emptyMappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("empty.l1");
+        Files.writeString(file, "");
+        assertEquals(List.of(), tokens(Lexer.forFile(file)));
+    }
+
+    @Test
+    void charSequenceLexesLikeString() {
+        assertEquals(tokens(Lexer.forString(SOURCE)), tokens(Lexer.forCharSequence(new StringBuilder(SOURCE))));
+    }
+
+    @Test
+    void asciiViewOfBytes() {
+        byte[] bytes = "xint main;".getBytes(StandardCharsets.US_ASCII);
+        AsciiCharSequence chars = new AsciiCharSequence(ByteBuffer.wrap(bytes));
+        CharSequence view = chars.subSequence(1, bytes.length);
+        assertEquals("int main;", view.toString());
+        assertEquals(9, view.length());
+        assertEquals('m', view.charAt(4));
+        assertEquals("main", chars.text(5, 9));
+        assertEquals(tokens(Lexer.forString("int main;")), tokens(Lexer.forCharSequence(view)));
+    }
+
+    static List<Token> tokens(Lexer lexer) {
+        List<Token> tokens = new ArrayList<>();
+        for (Optional<Token> token = lexer.nextToken(); token.isPresent(); token = lexer.nextToken()) {
+            tokens.add(token.get());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,96 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// Compares [ParallelLexer] with the sequential [Lexer], for chunk sizes from a single character up to the whole
+/// input, so a chunk may end after every line break of the input.
+class ParallelLexerTest {
+    private static final String[] PIECES = {
+        "int", "return", "x", "y_1", "intx", "_", "0", "42", "0x1f", "0x", "007", "$",
+        "+", "-", "*", "/", "%", "=", "+=", "-=", "*=", "/=", "%=", "(", ")", "{", "}", ";",
+        " ", "\t", "\n", "\r", "\r\n", "//", "/*", "*/", "/**/", "/*/", "//*", "*//",
+    };
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesSequentialOnRandomInputs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 400; round++) {
+            StringBuilder source = new StringBuilder();
+            int count = 1 + random.nextInt(60);
+            for (int i = 0; i < count; i++) {
+                source.append(PIECES[random.nextInt(PIECES.length)]);
+                // mostly adjacent pieces, so operators and identifiers run into each other
+                if (random.nextInt(4) == 0) {
+                    source.append(random.nextBoolean() ? ' ' : '\n');
+                }
+            }
+            assertLexesLikeSequential(source.toString());
+        }
+    }
+
+    @Test
+    void boundariesNextToCommentsIdentifiersAndOperators() {
+        String[] sources = {
+            "int a\n/* b\n c */ d\n",
+            "x\n+=\ny\n/=\n2\n",
+            "/* /* nested\n*/ still\n comment */ z\n",
+            "// line\ncomment\n// /*\nnot\n*/\n",
+            "abc\r\ndef\rghi\n\njkl",
+            "/* unterminated\n comment\n",
+            "a /\n/ b\n* c\n/\n",
+        };
+        for (String source : sources) {
+            assertLexesLikeSequential(source);
+        }
+    }
+
+    @Test
+    void remapsSymbolsOfLaterChunks() {
+        // later chunks see "c" and "b" first, but the ids must follow the order of the whole input
+        String source = "a\nb\nc\nc\nb\nd\na\n";
+        TokenBuffer parallel = ParallelLexer.lex(Lexer.forString(source), pool, 1);
+        assertLexesLikeSequential(source);
+        SymbolTable symbols = parallel.symbols();
+        assertEquals(4, symbols.size());
+        for (int id = 0; id < symbols.size(); id++) {
+            assertEquals(String.valueOf((char) ('a' + id)), symbols.name(id));
+        }
+    }
+
+    private static void assertLexesLikeSequential(String source) {
+        TokenBuffer sequential = TokenBuffer.lex(Lexer.forString(source));
+        for (int chunkSize = 1; chunkSize <= source.length(); chunkSize++) {
+            TokenBuffer parallel = ParallelLexer.lex(Lexer.forString(source), pool, chunkSize);
+            String context = "chunk size " + chunkSize + " of " + source.replace("\n", "\\n").replace("\r", "\\r");
+            assertEquals(sequential.size(), parallel.size(), context);
+            for (int i = 0; i < sequential.size(); i++) {
+                // identifiers compare by their symbol id as well
+                assertEquals(sequential.token(i), parallel.token(i), context);
+                assertEquals(sequential.span(i), parallel.span(i), context);
+            }
+            assertEquals(sequential.symbols().size(), parallel.symbols().size(), context);
+            for (int id = 0; id < sequential.symbols().size(); id++) {
+                assertEquals(sequential.symbols().name(id), parallel.symbols().name(id), context);
+            }
+        }
+    }
+}
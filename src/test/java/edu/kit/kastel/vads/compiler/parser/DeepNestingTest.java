@@ -0,0 +1,94 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.TokenBuffer;
+import edu.kit.kastel.vads.compiler.parser.ast.AstArena;
+import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.visitor.NoOpVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/// Parses expressions nested a million levels deep, far more than a recursive parser could handle.
+/// The trees are checked with loops, as the methods of the records recurse.
+class DeepNestingTest {
+    private static final int DEPTH = 1_000_000;
+
+    @Test
+    void parentheses() {
+        String expression = "(".repeat(DEPTH) + "1" + ")".repeat(DEPTH);
+        assertInstanceOf(LiteralTree.class, returned(parse(expression)));
+    }
+
+    @Test
+    void negatedParentheses() {
+        String expression = "-(".repeat(DEPTH) + "1" + ")".repeat(DEPTH);
+        assertEquals(DEPTH, negations(returned(parse(expression))));
+    }
+
+    @Test
+    void negations() {
+        assertEquals(DEPTH, negations(returned(parse("-".repeat(DEPTH) + "1"))));
+    }
+
+    @Test
+    void rightNestedOperations() {
+        String expression = "1 + (2 * (".repeat(DEPTH / 2) + "3" + "))".repeat(DEPTH / 2);
+        ExpressionTree tree = returned(parse(expression));
+        int depth = 0;
+        while (tree instanceof BinaryOperationTree(var lhs, var rhs, _)) {
+            assertInstanceOf(LiteralTree.class, lhs);
+            tree = rhs;
+            depth++;
+        }
+        assertEquals(DEPTH, depth);
+        assertInstanceOf(LiteralTree.class, tree);
+    }
+
+    @Test
+    void arena() {
+        String source = program("-(".repeat(DEPTH) + "x" + ")".repeat(DEPTH));
+        AstArena arena = new Parser(new TokenBufferSource(TokenBuffer.lex(Lexer.forString(source)))).parseArena();
+        // program, function, type, name, block, return, ident expression, name and the negations
+        assertEquals(DEPTH + 8, arena.size());
+        int[] negations = new int[1];
+        arena.postorder(new NoOpVisitor<int[]>() {
+            @Override
+            public Unit visit(NegateTree negateTree, int[] count) {
+                count[0]++;
+                return Unit.INSTANCE;
+            }
+        }, negations);
+        assertEquals(DEPTH, negations[0]);
+    }
+
+    private static ProgramTree parse(String expression) {
+        return new Parser(new TokenSource(Lexer.forString(program(expression)))).parseProgram();
+    }
+
+    private static String program(String expression) {
+        return "int main() { return " + expression + "; }";
+    }
+
+    private static ExpressionTree returned(ProgramTree program) {
+        ReturnTree ret = (ReturnTree) program.topLevelTrees().getFirst().body().statements().getFirst();
+        return ret.expression();
+    }
+
+    private static int negations(ExpressionTree tree) {
+        int count = 0;
+        while (tree instanceof NegateTree negate) {
+            tree = negate.expression();
+            count++;
+        }
+        assertInstanceOf(LiteralTree.class, tree);
+        return count;
+    }
+}
@@ -0,0 +1,182 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// Compares the tree of an [IncrementalFrontend] after each edit with parsing the edited source from scratch.
+class IncrementalFrontendTest {
+    private static final String SOURCE = """
+        int main() {
+            int x = 1;
+            int y = x * 3;
+            x += y - 7; y = -x;
+            return x % y;
+        }
+        """;
+    private static final String[] INSERTIONS = {
+        "", "x", "y", "1", "0x2", "+", "-", "*", "=", "+=", ";", "(", ")", "}", " ", "\n",
+        "x = 2;", "int z = x;", "\n    y -= 1;\n", "/* c */", "//",
+    };
+
+    @Test
+    void randomEditsParseLikeFullSource() {
+        Random random = new Random(11);
+        int valid = 0;
+        for (int round = 0; round < 200; round++) {
+            IncrementalFrontend frontend = new IncrementalFrontend(SOURCE);
+            StringBuilder source = new StringBuilder(SOURCE);
+            for (int step = 0; step < 20; step++) {
+                // edits are kept inside the body, where they are parsed again locally
+                int bodyStart = source.indexOf("{") + 1;
+                int offset = bodyStart + random.nextInt(source.length() - bodyStart + 1);
+                int removed = random.nextInt(Math.min(3, source.length() - offset) + 1);
+                String inserted = INSERTIONS[random.nextInt(INSERTIONS.length)];
+                String removedText = source.substring(offset, offset + removed);
+                source.replace(offset, offset + removed, inserted);
+                ProgramTree expected = parse(source.toString());
+                if (expected == null) {
+                    assertThrows(ParseException.class, () -> frontend.edit(offset, removed, inserted));
+                    // undoing the edit starts the next step from a valid program again
+                    source.replace(offset, offset + inserted.length(), removedText);
+                    assertEquals(parse(source.toString()), frontend.edit(offset, inserted.length(), removedText));
+                    continue;
+                }
+                assertEquals(expected, frontend.edit(offset, removed, inserted), source.toString());
+                valid++;
+            }
+        }
+        // most of the checks must compare trees, not only errors
+        assertTrue(valid > 500, "only " + valid + " valid edits");
+    }
+
+    @Test
+    void reusesStatementsOutsideTheEdit() {
+        IncrementalFrontend frontend = new IncrementalFrontend(SOURCE);
+        List<StatementTree> before = statements(frontend.program());
+        int offset = SOURCE.indexOf("3;");
+        ProgramTree edited = frontend.edit(offset, 1, "4");
+        assertEquals(parse(SOURCE.replace("x * 3", "x * 4")), edited);
+        List<StatementTree> after = statements(edited);
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            if (i != 1) {
+                assertSame(before.get(i), after.get(i));
+            }
+        }
+    }
+
+    @Test
+    void movesStatementsAfterInsertedLineBreak() {
+        IncrementalFrontend frontend = new IncrementalFrontend(SOURCE);
+        List<StatementTree> before = statements(frontend.program());
+        int offset = SOURCE.indexOf("1;") + 2;
+        ProgramTree edited = frontend.edit(offset, 0, "\n");
+        assertEquals(parse(SOURCE.replace("1;", "1;\n")), edited);
+        List<StatementTree> after = statements(edited);
+        assertEquals(before.size(), after.size());
+        assertSame(before.getFirst(), after.getFirst());
+        for (int i = 1; i < before.size(); i++) {
+            // the statements are moved copies, a parse would have created new names
+            List<Name> moved = names(after.get(i));
+            List<Name> original = names(before.get(i));
+            assertEquals(original.size(), moved.size());
+            for (int j = 0; j < original.size(); j++) {
+                assertSame(original.get(j), moved.get(j));
+            }
+        }
+
+        // a line break within a line only moves the statements after it on that line
+        before = after;
+        offset = frontend.source().toString().indexOf(" y = -x;");
+        edited = frontend.edit(offset, 0, "\n");
+        assertEquals(parse(frontend.source().toString()), edited);
+        after = statements(edited);
+        assertSame(before.get(2), after.get(2));
+        assertSame(names(before.get(3)).getFirst(), names(after.get(3)).getFirst());
+        assertSame(names(before.get(4)).getFirst(), names(after.get(4)).getFirst());
+    }
+
+    @Test
+    void parsesDeeplyNestedStatementsInsteadOfMoving() {
+        String source = "int main() {\n    int x = " + "-".repeat(1000) + "1;\n    return x;\n}\n";
+        IncrementalFrontend frontend = new IncrementalFrontend(source);
+        frontend.program();
+        ProgramTree edited = frontend.edit(source.indexOf("int x"), 0, "\n");
+        assertEquals(parse(source.replace("int x", "\nint x")), edited);
+    }
+
+    @Test
+    void recoversFromInvalidEdit() {
+        IncrementalFrontend frontend = new IncrementalFrontend(SOURCE);
+        int offset = SOURCE.indexOf("1;");
+        assertThrows(ParseException.class, () -> frontend.edit(offset, 1, ""));
+        assertThrows(ParseException.class, frontend::program);
+        assertEquals(parse(SOURCE.replace("x = 1;", "x = 5;")), frontend.edit(offset, 0, "5"));
+    }
+
+    private static List<StatementTree> statements(ProgramTree program) {
+        return program.topLevelTrees().getFirst().body().statements();
+    }
+
+    private static List<Name> names(Tree tree) {
+        List<Name> names = new ArrayList<>();
+        collectNames(tree, names);
+        return names;
+    }
+
+    private static void collectNames(Tree tree, List<Name> names) {
+        switch (tree) {
+            case NameTree name -> names.add(name.name());
+            case AssignmentTree assignment -> {
+                collectNames(assignment.lValue(), names);
+                collectNames(assignment.expression(), names);
+            }
+            case DeclarationTree declaration -> {
+                collectNames(declaration.name(), names);
+                if (declaration.initializer() != null) {
+                    collectNames(declaration.initializer(), names);
+                }
+            }
+            case ReturnTree ret -> collectNames(ret.expression(), names);
+            case LValueIdentTree lValue -> collectNames(lValue.name(), names);
+            case IdentExpressionTree ident -> collectNames(ident.name(), names);
+            case BinaryOperationTree binary -> {
+                collectNames(binary.lhs(), names);
+                collectNames(binary.rhs(), names);
+            }
+            case NegateTree negate -> collectNames(negate.expression(), names);
+            default -> {
+            }
+        }
+    }
+
+    private static @Nullable ProgramTree parse(String source) {
+        try {
+            return new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+        } catch (ParseException _) {
+            return null;
+        }
+    }
+}
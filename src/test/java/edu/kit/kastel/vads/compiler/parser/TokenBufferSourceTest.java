@@ -0,0 +1,70 @@
+package edu.kit.kastel.vads.compiler.parser;
+
+import edu.kit.kastel.vads.compiler.lexer.KeywordType;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+import edu.kit.kastel.vads.compiler.lexer.TokenBuffer;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBufferSourceTest {
+    private static final String PROGRAM = """
+        int main() {
+            int x = 0x10;
+            int y;
+            y = -(x * 3) / 2 % 5;
+            x += y - 1;
+            x -= 2; x *= 3; x /= 4; x %= 5;
+            return x + y;
+        }
+        """;
+
+    @Test
+    void parsesLikeStreamingSource() {
+        ProgramTree streamed = new Parser(new TokenSource(Lexer.forString(PROGRAM))).parseProgram();
+        ProgramTree buffered = new Parser(new TokenBufferSource(TokenBuffer.lex(Lexer.forString(PROGRAM))))
+            .parseProgram();
+        assertEquals(streamed, buffered);
+    }
+
+    @Test
+    void peekCreatesOneTokenPerIndex() {
+        TokenBufferSource source = new TokenBufferSource(TokenBuffer.lex(Lexer.forString("int main")));
+        Token first = source.peek();
+        assertSame(first, source.peek());
+        assertSame(first, source.consume());
+        Token second = source.peek();
+        assertNotSame(first, second);
+        assertSame(second, source.consume());
+        assertFalse(source.hasMore());
+        assertThrows(ParseException.class, source::peek);
+    }
+
+    @Test
+    void peekChecksMatchTokens() {
+        TokenBuffer buffer = TokenBuffer.lex(Lexer.forString(PROGRAM + " $ 007"));
+        TokenBufferSource source = new TokenBufferSource(buffer);
+        for (int i = 0; i < buffer.size(); i++) {
+            Token token = buffer.token(i);
+            for (KeywordType type : KeywordType.values()) {
+                assertEquals(token.isKeyword(type), source.peekIsKeyword(type), token + " " + type);
+            }
+            for (OperatorType type : OperatorType.values()) {
+                assertEquals(token.isOperator(type), source.peekIsOperator(type), token + " " + type);
+            }
+            for (SeparatorType type : SeparatorType.values()) {
+                assertEquals(token.isSeparator(type), source.peekIsSeparator(type), token + " " + type);
+            }
+            assertEquals(token, source.consume());
+        }
+        assertFalse(source.hasMore());
+    }
+}
@@ -0,0 +1,123 @@
+package edu.kit.kastel.vads.compiler.parser.ast;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.Identifier;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.NumberLiteral;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.type.BasicType;
+import edu.kit.kastel.vads.compiler.parser.visitor.RecursivePostorderVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AstArenaTest {
+    private static final String[] PROGRAMS = {
+        "int main() { return 0; }",
+        "int main() {}",
+        """
+        int main() {
+            int x;
+            int y = 0x7fffffff;
+            x = -(y * 3) / -2 % 5 - y + 2147483648;
+            (x) += y - 1;
+            x -= 2; x *= 3; x /= 4; x %= 5;
+            return --x + y;
+        }
+        """,
+        "int main() {\n" + "int a = 1;\n".repeat(100) + "return a;\n}",
+    };
+
+    @Test
+    void treesEqualRecords() {
+        for (String program : PROGRAMS) {
+            ProgramTree records = parser(program).parseProgram();
+            AstArena arena = parser(program).parseArena();
+            assertEquals(records, arena.tree(arena.root()), program);
+            assertEquals(AstArena.Kind.PROGRAM, arena.kind(arena.root()));
+        }
+    }
+
+    @Test
+    void subtreesEqualRecords() {
+        String program = PROGRAMS[2];
+        List<Tree> records = visitedTrees(parser(program).parseProgram());
+        AstArena arena = parser(program).parseArena();
+        // nodes are in postorder, as the records are visited
+        assertEquals(records.size(), arena.size());
+        for (int node = 0; node < arena.size(); node++) {
+            assertEquals(records.get(node), arena.tree(node));
+        }
+    }
+
+    @Test
+    void postorderVisitsLikeRecursiveVisitor() {
+        for (String program : PROGRAMS) {
+            List<Tree> expected = visitedTrees(parser(program).parseProgram());
+            List<Tree> visited = new ArrayList<>();
+            Object result = parser(program).parseArena().postorder(recorder(visited), "data");
+            assertEquals(expected, visited, program);
+            assertEquals(expected.getLast(), result);
+        }
+    }
+
+    @Test
+    void keepsParsedValuesOfLiterals() {
+        AstArena.Builder builder = new AstArena.Builder();
+        Span span = Span.singleLine(1, 4, 2);
+        int type = builder.type(BasicType.INT, span);
+        int name = builder.name(Name.forIdentifier(new Identifier("main", 0, span)), span);
+        // values that parsing the texts doesn't give, so the records must not parse them again
+        int literal = builder.literal("12", 10, 34, span);
+        int invalid = builder.literal("13", 16, NumberLiteral.INVALID, span);
+        int sum = builder.binaryOperation(literal, invalid, OperatorType.PLUS);
+        int body = builder.block(new int[] {builder.returnStatement(sum, span.start())}, 1, span);
+        int function = builder.function(type, name, body);
+        builder.program(new int[] {function}, 1);
+        AstArena arena = builder.build();
+
+        assertEquals(34, arena.literalValue(literal));
+        assertEquals(NumberLiteral.INVALID, arena.literalValue(invalid));
+        assertEquals(new LiteralTree("12", 10, 34, span), arena.tree(literal));
+        LiteralTree invalidTree = (LiteralTree) arena.tree(invalid);
+        assertEquals(16, invalidTree.base());
+        assertFalse(invalidTree.isValid());
+        List<Tree> visited = new ArrayList<>();
+        arena.postorder(recorder(visited), "data");
+        assertTrue(visited.contains(new LiteralTree("12", 10, 34, span)));
+    }
+
+    private static List<Tree> visitedTrees(ProgramTree program) {
+        List<Tree> visited = new ArrayList<>();
+        program.accept(new RecursivePostorderVisitor<>(recorder(visited)), "data");
+        return visited;
+    }
+
+    /// {@return a visitor that records each tree it visits and returns it}
+    @SuppressWarnings("unchecked")
+    private static Visitor<String, Object> recorder(List<Tree> visited) {
+        return (Visitor<String, Object>) Proxy.newProxyInstance(
+            Visitor.class.getClassLoader(),
+            new Class<?>[] {Visitor.class},
+            (_, _, args) -> {
+                assertEquals("data", args[1]);
+                visited.add((Tree) args[0]);
+                return args[0];
+            }
+        );
+    }
+
+    private static Parser parser(String program) {
+        return new Parser(new TokenSource(Lexer.forString(program)));
+    }
+}
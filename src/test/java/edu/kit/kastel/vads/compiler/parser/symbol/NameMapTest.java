@@ -0,0 +1,83 @@
+package edu.kit.kastel.vads.compiler.parser.symbol;
+
+import edu.kit.kastel.vads.compiler.lexer.KeywordType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NameMapTest {
+
+    @Test
+    void identNamesEqualByIdentifier() {
+        IdentName interned = new IdentName("x", 3);
+        assertEquals(interned, new IdentName("x", -1));
+        assertEquals(interned, new IdentName("x", 7));
+        assertEquals(interned.hashCode(), new IdentName("x", -1).hashCode());
+        assertNotEquals(interned, new IdentName("y", 3));
+    }
+
+    @Test
+    void internedAndPlainNamesShareEntries() {
+        NameMap<String> map = new NameMap<>();
+        map.put(new IdentName("x", 0), "interned");
+        assertEquals("interned", map.get(new IdentName("x", -1)));
+        map.put(new IdentName("x", -1), "plain");
+        assertEquals("plain", map.get(new IdentName("x", 0)));
+
+        map.put(new IdentName("y", -1), "plain");
+        assertEquals("plain", map.get(new IdentName("y", 1)));
+        map.put(new IdentName("y", 1), "interned");
+        assertEquals("interned", map.get(new IdentName("y", -1)));
+        assertNull(map.get(new IdentName("z", -1)));
+        assertNull(map.get(new IdentName("z", 2)));
+    }
+
+    @Test
+    void mergeRemovesOnNull() {
+        NameMap<Integer> map = new NameMap<>();
+        for (Name name : new Name[] {new IdentName("a", 40), new IdentName("b", -1), new KeywordName(KeywordType.INT)}) {
+            map.merge(name, 1, Integer::sum);
+            map.merge(name, 2, Integer::sum);
+            assertEquals(3, map.get(name));
+            map.merge(name, 0, (_, _) -> null);
+            assertNull(map.get(name));
+        }
+    }
+
+    @Test
+    void reusesSlotAfterMergeRemovesMapping() {
+        NameMap<Integer> map = new NameMap<>();
+        map.put(new IdentName("a", 5), 1);
+        map.merge(new IdentName("a", 5), 0, (_, _) -> null);
+        assertNull(map.get(new IdentName("a", -1)));
+        // the identifier of the slot is kept, so a plain name finds the new value in the same slot
+        map.put(new IdentName("a", 5), 2);
+        assertEquals(2, map.get(new IdentName("a", -1)));
+        map.merge(new IdentName("a", -1), 3, Integer::sum);
+        assertEquals(5, map.get(new IdentName("a", 5)));
+    }
+
+    @Test
+    void findsPlainNamesAmongManySymbols() {
+        NameMap<Integer> map = new NameMap<>();
+        for (int symbol = 0; symbol < 1000; symbol++) {
+            map.put(new IdentName("x" + symbol, symbol), symbol);
+        }
+        for (int symbol = 0; symbol < 1000; symbol++) {
+            assertEquals(symbol, map.get(new IdentName("x" + symbol, -1)));
+        }
+        assertNull(map.get(new IdentName("x1000", -1)));
+    }
+
+    @Test
+    void keywordsAndIdentifiersDiffer() {
+        NameMap<String> map = new NameMap<>();
+        map.put(new KeywordName(KeywordType.INT), "keyword");
+        assertNull(map.get(new IdentName("int", -1)));
+        assertEquals("keyword", map.computeIfAbsent(new KeywordName(KeywordType.INT), _ -> "other"));
+        assertEquals("ident", map.computeIfAbsent(new IdentName("int", 100), _ -> "ident"));
+        assertEquals("keyword", map.get(new KeywordName(KeywordType.INT)));
+    }
+}
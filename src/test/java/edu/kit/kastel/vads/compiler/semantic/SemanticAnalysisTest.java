@@ -0,0 +1,64 @@
+package edu.kit.kastel.vads.compiler.semantic;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.visitor.NoOpVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SemanticAnalysisTest {
+
+    @Test
+    void analyzesTwice() {
+        // a declaration left over from the first run would be reported as declared twice
+        SemanticAnalysis analysis = new SemanticAnalysis(parse("int main() { int x = 1; return x; }"));
+        assertDoesNotThrow(analysis::analyze);
+        assertDoesNotThrow(analysis::analyze);
+    }
+
+    @Test
+    void reportsSameErrorTwice() {
+        SemanticAnalysis analysis = new SemanticAnalysis(parse("int main() { int x; int x; return 0; }"));
+        SemanticException first = assertThrows(SemanticException.class, analysis::analyze);
+        SemanticException second = assertThrows(SemanticException.class, analysis::analyze);
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(first.span(), second.span());
+    }
+
+    @Test
+    void createsStatePerRun() {
+        List<List<String>> states = new ArrayList<>();
+        SemanticAnalysis analysis = new SemanticAnalysis(parse("int main() { return 1 + 2; }"))
+            .register(new NoOpVisitor<List<String>>() {
+                @Override
+                public Unit visit(LiteralTree literalTree, List<String> literals) {
+                    literals.add(literalTree.value());
+                    return Unit.INSTANCE;
+                }
+            }, () -> {
+                List<String> state = new ArrayList<>();
+                states.add(state);
+                return state;
+            });
+        assertEquals(0, states.size());
+        analysis.analyze();
+        analysis.analyze();
+        assertEquals(List.of(List.of("1", "2"), List.of("1", "2")), states);
+        assertNotSame(states.get(0), states.get(1));
+    }
+
+    private static ProgramTree parse(String source) {
+        return new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+    }
+}